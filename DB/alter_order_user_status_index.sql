@@ -0,0 +1,3 @@
+-- Customer order history is read by user id and status (first page of each status and amounts of orders of each status),
+-- InnoDB secondary indexes contain the primary key, so pages ordered by order_id are read from this index too.
+ALTER TABLE `epam_cafe`.`order` ADD KEY `idx_order_user_status` (`user_id`,`status`);
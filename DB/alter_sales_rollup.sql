@@ -0,0 +1,35 @@
+-- Pre-aggregated sales for the admin sales page: one row per dimension (DAY, HOUR, DISH, PAYMENT_TYPE) and bucket.
+-- The application adds counters of made, cancelled and finished orders to this table in batches.
+-- Run this script before starting the new version of the application, it fills the table from existing orders.
+CREATE TABLE `epam_cafe`.`sales_rollup` (
+  `dimension` varchar(12) NOT NULL,
+  `bucket` varchar(20) NOT NULL,
+  `orders_made` int(10) unsigned NOT NULL DEFAULT '0',
+  `made_amount` decimal(12,2) unsigned NOT NULL DEFAULT '0.00',
+  `orders_cancelled` int(10) unsigned NOT NULL DEFAULT '0',
+  `cancelled_amount` decimal(12,2) unsigned NOT NULL DEFAULT '0.00',
+  `orders_finished` int(10) unsigned NOT NULL DEFAULT '0',
+  `dish_quantity` int(10) unsigned NOT NULL DEFAULT '0',
+  PRIMARY KEY (`dimension`,`bucket`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+INSERT INTO `epam_cafe`.`sales_rollup`
+SELECT 'DAY', DATE_FORMAT(create_date, '%Y-%m-%d'), COUNT(*), SUM(order_price),
+       SUM(status = 'CANCELLED'), SUM(IF(status = 'CANCELLED', order_price, 0)), SUM(status = 'FINISHED'), 0
+FROM `epam_cafe`.`order` GROUP BY DATE_FORMAT(create_date, '%Y-%m-%d');
+
+INSERT INTO `epam_cafe`.`sales_rollup`
+SELECT 'HOUR', DATE_FORMAT(create_date, '%H'), COUNT(*), SUM(order_price),
+       SUM(status = 'CANCELLED'), SUM(IF(status = 'CANCELLED', order_price, 0)), SUM(status = 'FINISHED'), 0
+FROM `epam_cafe`.`order` GROUP BY DATE_FORMAT(create_date, '%H');
+
+INSERT INTO `epam_cafe`.`sales_rollup`
+SELECT 'PAYMENT_TYPE', payment_type, COUNT(*), SUM(order_price),
+       SUM(status = 'CANCELLED'), SUM(IF(status = 'CANCELLED', order_price, 0)), SUM(status = 'FINISHED'), 0
+FROM `epam_cafe`.`order` GROUP BY payment_type;
+
+INSERT INTO `epam_cafe`.`sales_rollup`
+SELECT 'DISH', ohd.dish_id, COUNT(*), SUM(ohd.dish_price * ohd.dish_quantity),
+       SUM(o.status = 'CANCELLED'), SUM(IF(o.status = 'CANCELLED', ohd.dish_price * ohd.dish_quantity, 0)),
+       SUM(o.status = 'FINISHED'), SUM(ohd.dish_quantity)
+FROM `epam_cafe`.`order_has_dish` ohd JOIN `epam_cafe`.`order` o USING (order_id) GROUP BY ohd.dish_id;
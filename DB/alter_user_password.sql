@@ -0,0 +1,3 @@
+-- Password hashes are computed in the application (PBKDF2) and are longer than MD5 hashes.
+-- Existing MD5 hashes are still accepted and are replaced after the next successful login.
+ALTER TABLE `epam_cafe`.`user` MODIFY `password` varchar(100) NOT NULL COMMENT 'хеш пароля пользователя';
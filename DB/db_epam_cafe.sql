@@ -93,6 +93,7 @@ CREATE TABLE `order` (
   `review` text COMMENT 'отзыв, который может оставить пользователь после того, как выставил оценку. по умолчанию NULL',
   PRIMARY KEY (`order_id`),
   KEY `idx_fk_order_user` (`user_id`),
+  KEY `idx_order_user_status` (`user_id`,`status`),
   CONSTRAINT `fk_order_user` FOREIGN KEY (`user_id`) REFERENCES `user` (`user_id`) ON DELETE NO ACTION ON UPDATE NO ACTION
 ) ENGINE=InnoDB AUTO_INCREMENT=26 DEFAULT CHARSET=utf8 COMMENT='таблица, содержащая и описывающая заказы, формируемые пользоваетелями';
 /*!40101 SET character_set_client = @saved_cs_client */;
@@ -137,6 +138,36 @@ INSERT INTO `order_has_dish` VALUES (1,1,3.50,1),(1,8,3.00,1),(1,27,1.50,1),(2,1
 /*!40000 ALTER TABLE `order_has_dish` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `sales_rollup`
+--
+
+DROP TABLE IF EXISTS `sales_rollup`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!40101 SET character_set_client = utf8 */;
+CREATE TABLE `sales_rollup` (
+  `dimension` varchar(12) NOT NULL COMMENT 'измерение: DAY, HOUR, DISH, PAYMENT_TYPE',
+  `bucket` varchar(20) NOT NULL COMMENT 'значение измерения: дата yyyy-MM-dd, час 00-23, id блюда или тип оплаты',
+  `orders_made` int(10) unsigned NOT NULL DEFAULT '0' COMMENT 'кол-во сделанных заказов',
+  `made_amount` decimal(12,2) unsigned NOT NULL DEFAULT '0.00' COMMENT 'сумма сделанных заказов (для блюд - цена блюда * кол-во)',
+  `orders_cancelled` int(10) unsigned NOT NULL DEFAULT '0' COMMENT 'кол-во отмененных заказов',
+  `cancelled_amount` decimal(12,2) unsigned NOT NULL DEFAULT '0.00' COMMENT 'сумма отмененных заказов',
+  `orders_finished` int(10) unsigned NOT NULL DEFAULT '0' COMMENT 'кол-во выполненных заказов',
+  `dish_quantity` int(10) unsigned NOT NULL DEFAULT '0' COMMENT 'кол-во блюда в сделанных заказах (только для DISH)',
+  PRIMARY KEY (`dimension`,`bucket`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COMMENT='агрегированные продажи, обновляются приложением пакетами';
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `sales_rollup`
+--
+
+LOCK TABLES `sales_rollup` WRITE;
+/*!40000 ALTER TABLE `sales_rollup` DISABLE KEYS */;
+INSERT INTO `sales_rollup` VALUES ('DAY','2018-01-05',2,23.50,0,0.00,2,0),('DAY','2018-01-06',2,22.00,1,10.50,1,0),('DAY','2018-01-08',2,23.50,0,0.00,2,0),('DAY','2018-01-13',2,22.50,0,0.00,2,0),('DAY','2018-01-15',2,24.50,1,12.00,1,0),('DAY','2018-01-17',1,6.00,0,0.00,1,0),('DAY','2018-01-18',1,9.50,0,0.00,1,0),('DAY','2018-01-21',1,18.00,0,0.00,1,0),('DAY','2018-01-22',1,15.00,0,0.00,1,0),('DAY','2018-01-24',1,15.00,0,0.00,1,0),('DAY','2018-01-25',1,13.00,1,13.00,0,0),('DAY','2018-01-26',2,18.00,0,0.00,2,0),('DAY','2018-01-27',2,27.00,0,0.00,2,0),('DAY','2018-01-28',1,16.00,0,0.00,1,0),('DAY','2018-01-29',4,44.00,1,11.50,3,0),('DISH','1',2,7.00,0,0.00,2,2),('DISH','10',4,16.00,0,0.00,4,4),('DISH','11',4,22.00,1,5.50,3,4),('DISH','12',4,30.00,0,0.00,4,5),('DISH','13',3,15.00,1,5.00,2,3),('DISH','14',5,50.00,1,10.00,4,10),('DISH','15',2,6.00,1,3.00,1,2),('DISH','16',3,9.00,1,3.00,2,3),('DISH','17',5,12.00,0,0.00,5,8),('DISH','18',1,2.50,0,0.00,1,1),('DISH','19',2,4.00,0,0.00,2,2),('DISH','2',2,9.00,1,3.00,1,3),('DISH','20',1,2.00,0,0.00,1,1),('DISH','21',1,3.00,0,0.00,1,1),('DISH','22',1,3.00,0,0.00,1,1),('DISH','23',1,2.00,0,0.00,1,1),('DISH','24',3,8.00,1,2.00,2,4),('DISH','25',2,9.00,0,0.00,2,6),('DISH','26',4,15.00,0,0.00,4,10),('DISH','27',3,6.00,2,4.50,1,4),('DISH','28',1,3.00,0,0.00,1,2),('DISH','4',2,6.00,0,0.00,2,2),('DISH','5',4,17.50,1,3.50,3,5),('DISH','6',3,13.50,1,4.50,2,3),('DISH','7',3,9.00,1,3.00,2,3),('DISH','8',2,6.00,0,0.00,2,2),('DISH','9',4,12.00,0,0.00,4,4),('HOUR','08',2,27.00,0,0.00,2,0),('HOUR','09',3,34.00,2,23.50,1,0),('HOUR','10',1,15.00,0,0.00,1,0),('HOUR','11',3,37.00,0,0.00,3,0),('HOUR','12',1,8.00,0,0.00,1,0),('HOUR','13',3,32.00,1,10.50,2,0),('HOUR','14',1,7.00,0,0.00,1,0),('HOUR','15',2,20.00,0,0.00,2,0),('HOUR','16',1,13.00,1,13.00,0,0),('HOUR','17',3,36.50,0,0.00,3,0),('HOUR','18',2,24.50,0,0.00,2,0),('HOUR','19',3,43.50,0,0.00,3,0),('PAYMENT_TYPE','ACCOUNT',15,162.50,3,34.00,12,0),('PAYMENT_TYPE','CASH',10,135.00,1,13.00,9,0);
+/*!40000 ALTER TABLE `sales_rollup` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `user`
 --
@@ -147,7 +178,7 @@ DROP TABLE IF EXISTS `user`;
 CREATE TABLE `user` (
   `user_id` smallint(5) unsigned NOT NULL AUTO_INCREMENT COMMENT 'id пользователя',
   `email` varchar(40) NOT NULL COMMENT 'email пользователя, он же логин, должен быть уникальным\n',
-  `password` char(32) NOT NULL COMMENT 'пароль пользователя',
+  `password` varchar(100) NOT NULL COMMENT 'пароль пользователя',
   `first_name` varchar(20) NOT NULL COMMENT 'имя пользователя',
   `last_name` varchar(20) NOT NULL COMMENT 'фамилия пользователя',
   `phone` char(20) NOT NULL COMMENT 'телефон пользователя',
@@ -5,6 +5,8 @@ import com.shirey.cafe.exception.LogicException;
 import com.shirey.cafe.manager.PageManager;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import java.util.Objects;
 
 /**
  * The {@code Command} interface
@@ -29,6 +31,18 @@ public interface Command {
      */
     Router execute(HttpServletRequest request) throws LogicException;
 
+    /**
+     * Defines if all database calls of the command should be made in one transaction (using one connection
+     * that is held until the command is executed). Database calls of a non-transactional command take
+     * a connection from the pool only for the time of the call.
+     *
+     * @return {@code true} if the command should be executed in one transaction, {@code false} by default
+     * @see com.shirey.cafe.db.UnitOfWork
+     */
+    default boolean isTransactional() {
+        return false;
+    }
+
     /**
      * Creates a new router object and sets its page.
      * Uses default RouteType.FORWARD
@@ -69,4 +83,61 @@ public interface Command {
         return router;
     }
 
+    /**
+     * Defines an entity tag of the page. The tag depends on the content version and
+     * on the session values that are shown on every page (locale, date format style, user and role).
+     *
+     * @param request an {@link HttpServletRequest} object
+     * @param name    a name of the page
+     * @param version a version of the content of the page
+     * @return a weak entity tag
+     */
+    default String defineETag(HttpServletRequest request, String name, long version) {
+        HttpSession session = request.getSession();
+        int sessionState = Objects.hash(session.getAttribute("locale"), session.getAttribute("dateFormatStyle"),
+                session.getAttribute("role"), session.getAttribute("user"));
+        return "W/\"" + name + '-' + Long.toHexString(version) + '-' + Integer.toHexString(sessionState) + '"';
+    }
+
+    /**
+     * Checks if the client has the page with this entity tag (If-None-Match header),
+     * weak comparison is used.
+     *
+     * @param request an {@link HttpServletRequest} object
+     * @param eTag    an entity tag of the current page
+     * @return {@code true} if the page that the client has is up to date, {@code false} otherwise
+     */
+    default boolean isNotModified(HttpServletRequest request, String eTag) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if ("*".equals(tag) || opaqueTag.equals(tag.startsWith("W/") ? tag.substring(2) : tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a new router object with RouteType.NOT_MODIFIED and the entity tag.
+     * The page is set as the current page of the session (it is not rendered again).
+     *
+     * @param request an {@link HttpServletRequest} object
+     * @param page    a page that the client has
+     * @param eTag    an entity tag of the page
+     * @return a {@code Router} object
+     */
+    default Router notModified(HttpServletRequest request, String page, String eTag) {
+        request.getSession().setAttribute("currentPage", page);
+        Router router = new Router();
+        router.setPage(page);
+        router.setETag(eTag);
+        router.setRoute(Router.RouteType.NOT_MODIFIED);
+        return router;
+    }
+
 }
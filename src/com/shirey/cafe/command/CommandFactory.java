@@ -2,32 +2,86 @@ package com.shirey.cafe.command;
 
 import com.shirey.cafe.exception.UnsupportedCommandException;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
 /**
  * The {@code CommandFactory} class
  * is a factory that defines and returns {@code Command} object.
+ * <p>
+ * All commands are put into lookup tables once, when the class is loaded,
+ * so defining a command doesn't create new strings and doesn't use {@code Enum.valueOf}.
  *
  * @author Alex Shirey
  */
 
 public class CommandFactory {
 
+    /**
+     * The max length of the unsupported command value that is written to the exception message.
+     */
+    private static final int MAX_VALUE_LENGTH_IN_MESSAGE = 50;
+
+    /**
+     * Command types by their names in lower case (as they are used in jsp) and in upper case.
+     */
+    private static final Map<String, CommandType> COMMAND_TYPES = new HashMap<>();
+
+    /**
+     * Command types by their names ignoring case, used if the value is in mixed case.
+     */
+    private static final Map<String, CommandType> COMMAND_TYPES_IGNORE_CASE = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        for (CommandType type : CommandType.values()) {
+            COMMAND_TYPES.put(type.name(), type);
+            COMMAND_TYPES.put(type.name().toLowerCase(), type);
+            COMMAND_TYPES_IGNORE_CASE.put(type.name(), type);
+        }
+    }
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private CommandFactory() {
+    }
+
     /**
      * Defines and returns {@code Command} object.
      *
      * @param value a value from which {@code Command} object is defined.
      * @return {@code Command} object.
      * @throws UnsupportedCommandException if value is null, empty or not presented in {@code CommandType} class.
+     *                                     The exception has no stack trace.
      */
     public static Command defineCommand(String value) throws UnsupportedCommandException {
 
+        return defineCommandType(value).getCommand();
+    }
+
+    /**
+     * Defines and returns {@code CommandType} object.
+     *
+     * @param value a value from which {@code CommandType} object is defined.
+     * @return {@code CommandType} object.
+     * @throws UnsupportedCommandException if value is null, empty or not presented in {@code CommandType} class.
+     *                                     The exception has no stack trace.
+     */
+    public static CommandType defineCommandType(String value) throws UnsupportedCommandException {
+
         if (value == null || value.isEmpty()) {
-            throw new UnsupportedCommandException("command in jsp is null or empty.");
+            throw new UnsupportedCommandException("command in jsp is null or empty.", false);
+        }
+        CommandType type = COMMAND_TYPES.get(value);
+        if (type == null) {
+            type = COMMAND_TYPES_IGNORE_CASE.get(value);
         }
-        try {
-            return CommandType.valueOf(value.toUpperCase()).getCommand();
-        } catch (IllegalArgumentException e) {
-            throw new UnsupportedCommandException("command \"" + value + "\" in jsp is not supported.", e);
+        if (type == null) {
+            String shownValue = value.length() > MAX_VALUE_LENGTH_IN_MESSAGE ? value.substring(0, MAX_VALUE_LENGTH_IN_MESSAGE) + "..." : value;
+            throw new UnsupportedCommandException("command \"" + shownValue + "\" in jsp is not supported.", false);
         }
+        return type;
     }
 
 }
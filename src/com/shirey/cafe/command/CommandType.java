@@ -5,6 +5,7 @@ import com.shirey.cafe.command.common.ChangeDateFormatCommand;
 import com.shirey.cafe.command.common.ChangeLocaleCommand;
 import com.shirey.cafe.command.customer.*;
 import com.shirey.cafe.command.admin.ShowEditDishFormCommand;
+import com.shirey.cafe.command.dish.SearchDishesCommand;
 import com.shirey.cafe.command.dish.ShowMenuCommand;
 import com.shirey.cafe.command.dish.ShowOrderDetailsCommand;
 import com.shirey.cafe.command.guest.LoginCommand;
@@ -47,7 +48,7 @@ public enum CommandType {
 
     //Customer
     ADD_MONEY(new AddMoneyCommand(new CustomerLogic())),
-    ADD_DISH_TO_CART(new AddDishToCartCommand(new CustomerLogic())),
+    ADD_DISH_TO_CART(new AddDishToCartCommand(new CustomerLogic(), new DishLogic())),
     REMOVE_DISH_FROM_CART(new RemoveDishFromCartCommand(new CustomerLogic())),
     SHOW_CART(new ShowCartCommand(new CustomerLogic())),
     SHOW_PLACE_ORDER_PAGE(new ShowPlaceOrderPageCommand(new CustomerLogic())),
@@ -66,9 +67,11 @@ public enum CommandType {
     EDIT_DISH(new EditDishCommand(new AdminLogic())),
     ADD_DISH(new AddDishCommand(new AdminLogic())),
     REMOVE_REVIEW(new RemoveReviewCommand(new AdminLogic())),
+    SHOW_SALES(new ShowSalesCommand(new AdminLogic())),
 
     //Dish
     SHOW_MENU(new ShowMenuCommand(new DishLogic())),
+    SEARCH_DISHES(new SearchDishesCommand(new DishLogic())),
     SHOW_ORDER_DETAILS(new ShowOrderDetailsCommand(new DishLogic())),
 
     //Order
@@ -2,13 +2,11 @@ package com.shirey.cafe.command.admin;
 
 import com.shirey.cafe.command.Command;
 import com.shirey.cafe.controller.Router;
-import com.shirey.cafe.entity.Order;
 import com.shirey.cafe.exception.LogicException;
 import com.shirey.cafe.logic.AdminLogic;
 import com.shirey.cafe.manager.PageManager;
 
 import javax.servlet.http.HttpServletRequest;
-import java.util.List;
 
 /**
  * The {@code RemoveReviewCommand} class
@@ -19,7 +17,7 @@ import java.util.List;
 
 public class RemoveReviewCommand implements Command {
 
-    private static final String PAGE_REVIEWS = "page.reviews";
+    private static final String PAGE_REVIEWS = "page.controller.reviews";
     private static final String PARAM_ORDER_ID = "orderId";
     private AdminLogic adminLogic;
 
@@ -29,27 +27,22 @@ public class RemoveReviewCommand implements Command {
 
     /**
      * Gets order id from the request.
-     * Finds the order by id and sets its rating and review values to null.
-     * Returns router to the same page.
+     * Sets rating and review values of the order with this id to null.
+     * Returns router to the command that shows the same page (reviews are loaded from the database again).
      *
      * @param request an {@link HttpServletRequest} object that
      *                contains the request the client has made
      *                of the servlet
      * @return a {@code Router} object
      * @throws LogicException if {@code DaoException} occurs (database access error)
-     * @see AdminLogic#removeReview(Order)
+     * @see AdminLogic#removeReview(int)
      */
     @Override
     public Router execute(HttpServletRequest request) throws LogicException {
 
         int orderId = Integer.parseInt(request.getParameter(PARAM_ORDER_ID));
 
-        List<Order> orders = (List<Order>) request.getSession().getAttribute("ordersWithReview");
-        Order order = orders.stream().filter(o -> o.getOrderId() == orderId).findAny().orElse(null);
-
-        adminLogic.removeReview(order);
-
-        orders.remove(order);
+        adminLogic.removeReview(orderId);
 
         request.getSession().setAttribute("messageReviewRemoved", true);
 
@@ -0,0 +1,64 @@
+package com.shirey.cafe.command.admin;
+
+import com.shirey.cafe.command.Command;
+import com.shirey.cafe.controller.Router;
+import com.shirey.cafe.entity.SalesBucket;
+import com.shirey.cafe.exception.LogicException;
+import com.shirey.cafe.logic.AdminLogic;
+import com.shirey.cafe.manager.PageManager;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+
+/**
+ * The {@code ShowSalesCommand} class
+ * is a command to show sales page (revenue and cancellation rate by day, hour, dish or payment type).
+ *
+ * @author Alex Shirey
+ */
+
+public class ShowSalesCommand implements Command {
+
+    private static final String PAGE_SALES = "page.sales";
+    private static final String PARAM_DIMENSION = "dimension";
+    private AdminLogic adminLogic;
+
+    public ShowSalesCommand(AdminLogic adminLogic) {
+        this.adminLogic = adminLogic;
+    }
+
+    /**
+     * Gets the dimension from the request (day by default, a wrong value is ignored),
+     * gets sales of this dimension, sets them and the dimension as session attributes
+     * and returns router to the sales page.
+     *
+     * @param request an {@link HttpServletRequest} object that
+     *                contains the request the client has made
+     *                of the servlet
+     * @return a {@code Router} object
+     * @throws LogicException if {@code DaoException} occurs (database access error)
+     * @see AdminLogic#findSales(SalesBucket.Dimension)
+     */
+    @Override
+    public Router execute(HttpServletRequest request) throws LogicException {
+
+        SalesBucket.Dimension dimension = SalesBucket.Dimension.DAY;
+        String value = request.getParameter(PARAM_DIMENSION);
+        if (value != null) {
+            try {
+                dimension = SalesBucket.Dimension.valueOf(value.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                dimension = SalesBucket.Dimension.DAY;
+            }
+        }
+
+        List<SalesBucket> sales = adminLogic.findSales(dimension);
+        request.getSession().setAttribute("sales", sales);
+        request.getSession().setAttribute("salesDimension", dimension);
+
+        Router router = new Router();
+        router.setPage(PageManager.getProperty(PAGE_SALES));
+
+        return router;
+    }
+}
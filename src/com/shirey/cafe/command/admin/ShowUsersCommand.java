@@ -2,13 +2,14 @@ package com.shirey.cafe.command.admin;
 
 import com.shirey.cafe.command.Command;
 import com.shirey.cafe.controller.Router;
-import com.shirey.cafe.entity.User;
+import com.shirey.cafe.entity.UserPage;
+import com.shirey.cafe.entity.UserRole;
+import com.shirey.cafe.entity.UserSearch;
 import com.shirey.cafe.exception.LogicException;
 import com.shirey.cafe.logic.AdminLogic;
 import com.shirey.cafe.manager.PageManager;
 
 import javax.servlet.http.HttpServletRequest;
-import java.util.List;
 
 /**
  * The {@code ShowUsersCommand} class
@@ -20,6 +21,18 @@ import java.util.List;
 public class ShowUsersCommand implements Command {
 
     private static final String PAGE_USERS = "page.users";
+    private static final String PARAM_SEARCH_BY = "searchBy";
+    private static final String PARAM_QUERY = "query";
+    private static final String PARAM_ROLE = "role";
+    private static final String PARAM_ACTIVE = "active";
+    private static final String PARAM_AFTER_ID = "afterId";
+    private static final String PARAM_AFTER_KEY = "afterKey";
+
+    /**
+     * The max length of the searched prefix, the length of the column 'email'.
+     */
+    private static final int MAX_QUERY_LENGTH = 40;
+
     private AdminLogic adminLogic;
 
     public ShowUsersCommand(AdminLogic adminLogic) {
@@ -27,26 +40,86 @@ public class ShowUsersCommand implements Command {
     }
 
     /**
-     * Gets all users from the database,
+     * Gets one page of users from the database using search parameters
+     * (searchBy - email or last_name, query - a prefix of the email or the last name,
+     * role - customer or admin, active - true or false) and the cursor of the page (afterId, afterKey),
      * sets the session attribute to show them and
-     * returns router to the users page.
+     * returns router to the users page. Wrong or missing parameters are ignored.
      *
      * @param request an {@link HttpServletRequest} object that
      *                contains the request the client has made
      *                of the servlet
      * @return a {@code Router} object
      * @throws LogicException if {@code DaoException} occurs (database access error)
-     * @see AdminLogic#findAllUsers()
+     * @see AdminLogic#findUsersPage(UserSearch, Integer, String)
      */
     @Override
     public Router execute(HttpServletRequest request) throws LogicException {
 
-        List<User> users = adminLogic.findAllUsers();
-        request.getSession().setAttribute("users", users);
+        UserSearch search = new UserSearch(parseField(request.getParameter(PARAM_SEARCH_BY)),
+                parseQuery(request.getParameter(PARAM_QUERY)),
+                parseRole(request.getParameter(PARAM_ROLE)),
+                parseActive(request.getParameter(PARAM_ACTIVE)));
+        Integer afterId = parseAfterId(request.getParameter(PARAM_AFTER_ID));
+
+        UserPage usersPage = adminLogic.findUsersPage(search, afterId, request.getParameter(PARAM_AFTER_KEY));
+        request.getSession().setAttribute("usersPage", usersPage);
 
         Router router = new Router();
         router.setPage(PageManager.getProperty(PAGE_USERS));
 
         return router;
     }
+
+    private static UserSearch.Field parseField(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UserSearch.Field.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String parseQuery(String value) {
+        if (value == null) {
+            return null;
+        }
+        String query = value.trim();
+        return query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query;
+    }
+
+    private static UserRole parseRole(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            UserRole role = UserRole.valueOf(value.toUpperCase());
+            return role == UserRole.UNSUPPORTED ? null : role;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Boolean parseActive(String value) {
+        if ("true".equals(value)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equals(value)) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    private static Integer parseAfterId(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 }
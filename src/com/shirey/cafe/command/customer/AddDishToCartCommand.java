@@ -3,15 +3,15 @@ package com.shirey.cafe.command.customer;
 import com.shirey.cafe.command.Command;
 import com.shirey.cafe.controller.Router;
 import com.shirey.cafe.entity.Dish;
-import com.shirey.cafe.entity.DishType;
+import com.shirey.cafe.entity.DishSearchResult;
 import com.shirey.cafe.exception.LogicException;
-import com.shirey.cafe.logic.AdminLogic;
 import com.shirey.cafe.logic.CustomerLogic;
+import com.shirey.cafe.logic.DishLogic;
 import com.shirey.cafe.manager.PageManager;
 import com.shirey.cafe.util.InputDataValidator;
 
 import javax.servlet.http.HttpServletRequest;
-import java.math.BigDecimal;
+import javax.servlet.http.HttpSession;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,50 +29,93 @@ public class AddDishToCartCommand implements Command {
     private static final String PARAM_DISH_ID = "dishId";
     private static final String PARAM_DISH_QUANTITY = "dishQuantity";
     private CustomerLogic customerLogic;
+    private DishLogic dishLogic;
 
-    public AddDishToCartCommand(CustomerLogic customerLogic) {
+    public AddDishToCartCommand(CustomerLogic customerLogic, DishLogic dishLogic) {
         this.customerLogic = customerLogic;
+        this.dishLogic = dishLogic;
     }
 
     /**
      * Gets dish id, dish quantity values from the request,
      * validates quantity, if value is not a positive number, return router to the same page with message about invalid quantity.
-     * Otherwise, add founded dish and its quantity to the cart with success message.
+     * Otherwise, finds the dish (in the menu or the dish search result from the session, or in the database,
+     * because the search result may contain dishes added after the menu was shown)
+     * and adds it and its quantity to the cart with success message.
+     * If the dish id is not valid or the dish is not presented in the menu, returns router to the menu page,
+     * nothing is added.
      *
      * @param request an {@link HttpServletRequest} object that
      *                contains the request the client has made
      *                of the servlet
      * @return a {@code Router} object
+     * @throws LogicException if {@code DaoException} occurs (database access error)
      * @see InputDataValidator#isPositiveNumber(String)
      * @see CustomerLogic#addDishToCart(Map, Dish, int)
      */
     @Override
-    public Router execute(HttpServletRequest request) {
+    public Router execute(HttpServletRequest request) throws LogicException {
 
-        List<Dish> menu = (List<Dish>) request.getSession().getAttribute("menu");
-        Map<Dish, Integer> cart = (LinkedHashMap<Dish, Integer>) request.getSession().getAttribute("cart");
+        HttpSession session = request.getSession();
+        Map<Dish, Integer> cart = (LinkedHashMap<Dish, Integer>) session.getAttribute("cart");
 
-        int dishId = Integer.parseInt(request.getParameter(PARAM_DISH_ID));
+        Integer dishId = parseDishId(request.getParameter(PARAM_DISH_ID));
         String quantity = request.getParameter(PARAM_DISH_QUANTITY);
 
-        request.getSession().setAttribute("trLabel", dishId);
-
         Router router = new Router();
+        if (dishId == null) {
+            router.setPage(PageManager.getProperty(PAGE_MENU));
+            router.setRoute(Router.RouteType.REDIRECT);
+            return router;
+        }
+
+        session.setAttribute("trLabel", dishId);
         router.setPage(PageManager.getProperty(PAGE_MENU) + "#jumpTag" + dishId);
 
         if (!InputDataValidator.isPositiveNumber(quantity)) {
-            request.getSession().setAttribute("messageInvalidQuantity", true);
+            session.setAttribute("messageInvalidQuantity", true);
             return router;
         }
 
-        Dish dishToAdd = menu.stream().filter(dish -> dishId == dish.getDishId()).findAny().orElse(null);
+        Dish dishToAdd = findDish(session, dishId);
+        router.setRoute(Router.RouteType.REDIRECT);
+        if (dishToAdd == null || !dishToAdd.isInMenu()) {
+            router.setPage(PageManager.getProperty(PAGE_MENU));
+            return router;
+        }
         customerLogic.addDishToCart(cart, dishToAdd, Integer.parseInt(quantity));
 
-        request.getSession().setAttribute("messageDishAddedToCart", true);
-
-        router.setRoute(Router.RouteType.REDIRECT);
+        session.setAttribute("messageDishAddedToCart", true);
         return router;
 
     }
 
+    private Dish findDish(HttpSession session, int dishId) throws LogicException {
+
+        Dish dish = findInList((List<Dish>) session.getAttribute("menu"), dishId);
+        if (dish == null) {
+            DishSearchResult dishSearch = (DishSearchResult) session.getAttribute("dishSearch");
+            dish = findInList(dishSearch != null ? dishSearch.getDishes() : null, dishId);
+        }
+        return dish != null ? dish : dishLogic.findDishById(dishId);
+    }
+
+    private static Dish findInList(List<Dish> dishes, int dishId) {
+        if (dishes == null) {
+            return null;
+        }
+        return dishes.stream().filter(dish -> dishId == dish.getDishId()).findAny().orElse(null);
+    }
+
+    private static Integer parseDishId(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
 }
@@ -2,6 +2,7 @@ package com.shirey.cafe.command.customer;
 
 import com.shirey.cafe.command.Command;
 import com.shirey.cafe.controller.Router;
+import com.shirey.cafe.entity.User;
 import com.shirey.cafe.exception.LogicException;
 import com.shirey.cafe.logic.OrderLogic;
 import com.shirey.cafe.manager.PageManager;
@@ -38,7 +39,7 @@ public class LeaveFeedbackCommand implements Command {
      *                of the servlet
      * @return a {@code Router} object
      * @throws LogicException if {@code DaoException} occurs (database access error)
-     * @see OrderLogic#leaveFeedback(int, int, String)
+     * @see OrderLogic#leaveFeedback(int, int, int, String)
      */
     @Override
     public Router execute(HttpServletRequest request) throws LogicException {
@@ -47,7 +48,8 @@ public class LeaveFeedbackCommand implements Command {
         int rating = Integer.parseInt(request.getParameter(PARAM_RATING));
         String review = request.getParameter(PARAM_REVIEW);
 
-        orderLogic.leaveFeedback(orderId, rating, review);
+        User user = (User) request.getSession().getAttribute("user");
+        orderLogic.leaveFeedback(user.getUserId(), orderId, rating, review);
 
         request.getSession().setAttribute("messageFeedbackLeft", true);
 
@@ -3,14 +3,16 @@ package com.shirey.cafe.command.customer;
 import com.shirey.cafe.command.Command;
 import com.shirey.cafe.controller.Router;
 import com.shirey.cafe.entity.Order;
+import com.shirey.cafe.entity.OrderHistory;
 import com.shirey.cafe.entity.User;
 import com.shirey.cafe.exception.LogicException;
 import com.shirey.cafe.logic.OrderLogic;
 import com.shirey.cafe.manager.PageManager;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import javax.servlet.http.HttpServletRequest;
-import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * The {@code ShowCustomerPageCommand} class
@@ -21,7 +23,10 @@ import java.util.stream.Collectors;
 
 public class ShowCustomerPageCommand implements Command {
 
+    private static final Logger LOGGER = LogManager.getLogger(ShowCustomerPageCommand.class);
     private static final String PAGE_CUSTOMER = "page.customer";
+    private static final String PARAM_STATUS = "status";
+    private static final String PARAM_AFTER = "after";
     private OrderLogic orderLogic;
 
     public ShowCustomerPageCommand(OrderLogic orderLogic) {
@@ -29,8 +34,11 @@ public class ShowCustomerPageCommand implements Command {
     }
 
     /**
-     * Gets current user from the session attribute to find all his orders,
-     * sets active, cancelled, finished user orders lists as session attributes to show them on the customer page.
+     * Gets current user from the session attribute to find his order history -
+     * the first page of active, cancelled, finished user orders and amounts of orders of each status,
+     * sets the history as session attribute to show it on the customer page.
+     * If status and after parameters are set, the page of orders of this status after the order with this id is shown
+     * (cursor pagination), wrong values of parameters are ignored.
      * Returns router to the customer page.
      * <p>
      * Also sets currentTimeMillis session attribute that represents time when this method is called (current time)
@@ -41,22 +49,27 @@ public class ShowCustomerPageCommand implements Command {
      *                of the servlet
      * @return a {@code Router} object
      * @throws LogicException if {@code DaoException} occurs (database access error)
-     * @see OrderLogic#findUserOrders(int)
+     * @see OrderLogic#findOrderHistory(int)
+     * @see OrderLogic#findOrderHistoryPage(OrderHistory, int, Order.Status, int)
      */
     @Override
     public Router execute(HttpServletRequest request) throws LogicException {
 
         User user = (User) request.getSession().getAttribute("user");
-        List<Order> orders = orderLogic.findUserOrders(user.getUserId());
+        OrderHistory orderHistory = orderLogic.findOrderHistory(user.getUserId());
 
-        List<Order> activeOrders = orders.stream().filter(order -> order.getStatus() == Order.Status.ACTIVE).collect(Collectors.toList());
-        List<Order> cancelledOrders = orders.stream().filter(order -> order.getStatus() == Order.Status.CANCELLED).collect(Collectors.toList());
-        List<Order> finishedOrders = orders.stream().filter(order -> order.getStatus() == Order.Status.FINISHED).collect(Collectors.toList());
+        String status = request.getParameter(PARAM_STATUS);
+        String after = request.getParameter(PARAM_AFTER);
+        if (status != null && after != null) {
+            try {
+                orderHistory = orderLogic.findOrderHistoryPage(orderHistory, user.getUserId(),
+                        Order.Status.valueOf(status), Integer.parseInt(after));
+            } catch (IllegalArgumentException e) {
+                LOGGER.log(Level.DEBUG, "wrong page parameters, the first page is shown: {}", e.getMessage());
+            }
+        }
 
-        request.getSession().setAttribute("orders", orders);
-        request.getSession().setAttribute("activeOrders", activeOrders);
-        request.getSession().setAttribute("cancelledOrders", cancelledOrders);
-        request.getSession().setAttribute("finishedOrders", finishedOrders);
+        request.getSession().setAttribute("orderHistory", orderHistory);
         request.getSession().setAttribute("currentTimeMillis", System.currentTimeMillis());
 
         Router router = new Router();
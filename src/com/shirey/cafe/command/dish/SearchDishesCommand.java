@@ -0,0 +1,73 @@
+package com.shirey.cafe.command.dish;
+
+import com.shirey.cafe.command.Command;
+import com.shirey.cafe.controller.Router;
+import com.shirey.cafe.entity.DishSearchResult;
+import com.shirey.cafe.exception.LogicException;
+import com.shirey.cafe.logic.DishLogic;
+import com.shirey.cafe.manager.PageManager;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * The {@code SearchDishesCommand} class
+ * is a command to search dishes in the menu by name and description.
+ *
+ * @author Alex Shirey
+ */
+
+public class SearchDishesCommand implements Command {
+
+    private static final String PAGE_MENU = "page.menu";
+    private static final String PARAM_QUERY = "query";
+
+    /**
+     * The max length of the query, longer queries are cut.
+     */
+    private static final int MAX_QUERY_LENGTH = 100;
+
+    /**
+     * The max amount of completions of the last word of the query.
+     */
+    private static final int MAX_COMPLETIONS = 5;
+
+    private DishLogic dishLogic;
+
+    public SearchDishesCommand(DishLogic dishLogic) {
+        this.dishLogic = dishLogic;
+    }
+
+    /**
+     * Gets the query from the request, finds dishes of the menu and completions of the last word of the query,
+     * sets them as session attribute and returns router to the menu page.
+     * If the query is empty, the search result is removed and the menu page is shown without it.
+     *
+     * @param request an {@link HttpServletRequest} object that
+     *                contains the request the client has made
+     *                of the servlet
+     * @return a {@code Router} object
+     * @throws LogicException if {@code DaoException} occurs (database access error)
+     * @see DishLogic#searchDishes(String, int)
+     */
+    @Override
+    public Router execute(HttpServletRequest request) throws LogicException {
+
+        String query = request.getParameter(PARAM_QUERY);
+        query = query == null ? "" : query.trim();
+        if (query.length() > MAX_QUERY_LENGTH) {
+            query = query.substring(0, MAX_QUERY_LENGTH);
+        }
+
+        if (query.isEmpty()) {
+            request.getSession().removeAttribute("dishSearch");
+        } else {
+            DishSearchResult dishSearch = dishLogic.searchDishes(query, MAX_COMPLETIONS);
+            request.getSession().setAttribute("dishSearch", dishSearch);
+        }
+
+        Router router = new Router();
+        router.setPage(PageManager.getProperty(PAGE_MENU));
+
+        return router;
+    }
+}
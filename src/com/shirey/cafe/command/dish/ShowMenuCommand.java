@@ -4,10 +4,12 @@ import com.shirey.cafe.command.Command;
 import com.shirey.cafe.controller.Router;
 import com.shirey.cafe.entity.Dish;
 import com.shirey.cafe.exception.LogicException;
+import com.shirey.cafe.logic.ContentVersion;
 import com.shirey.cafe.logic.DishLogic;
 import com.shirey.cafe.manager.PageManager;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
 import java.util.Comparator;
 import java.util.List;
 
@@ -21,6 +23,7 @@ import java.util.List;
 public class ShowMenuCommand implements Command {
 
     private static final String PAGE_MENU = "page.menu";
+    private static final String ETAG_NAME = "menu";
     private DishLogic dishLogic;
 
     public ShowMenuCommand(DishLogic dishLogic) {
@@ -29,8 +32,12 @@ public class ShowMenuCommand implements Command {
 
     /**
      * Gets dishes presented in the menu from database as list,
-     * sorts this list by dish type, sets it as session attribute and
-     * returns router to the menu page.
+     * sorts this list by dish type, sets it, ids of dishes popular today and this week and the menu version
+     * (read before the list) as session attributes and returns router to the menu page. The result of the dish search is removed,
+     * the whole menu is shown. Windows of popular dishes are moved to the current hour before the menu version is read,
+     * so a page with outdated popular dishes doesn't get the current version.
+     * If the client already has the current menu page (If-None-Match header matches the entity tag),
+     * returns router with not modified route, the database is not used.
      *
      * @param request an {@link HttpServletRequest} object that
      *                contains the request the client has made
@@ -42,13 +49,28 @@ public class ShowMenuCommand implements Command {
     @Override
     public Router execute(HttpServletRequest request) throws LogicException {
 
+        HttpSession session = request.getSession();
+        session.removeAttribute("dishSearch");
+        // reading popular dishes moves their hourly windows, which may increase the menu version
+        dishLogic.findPopularTodayDishIds();
+        long menuVersion = ContentVersion.MENU.get();
+        String eTag = defineETag(request, ETAG_NAME, menuVersion);
+        boolean hasMessages = session.getAttribute("messageDishAddedToCart") != null || session.getAttribute("messageInvalidQuantity") != null;
+        if (session.getAttribute("menu") != null && !hasMessages && isNotModified(request, eTag)) {
+            return notModified(request, PageManager.getProperty(PAGE_MENU), eTag);
+        }
+
         List<Dish> menu = dishLogic.findDishesInMenu();
         menu.sort(Comparator.comparingInt(o -> o.getType().getDishTypeId()));
 
-        request.getSession().setAttribute("menu", menu);
+        session.setAttribute("menu", menu);
+        session.setAttribute("popularToday", dishLogic.findPopularTodayDishIds());
+        session.setAttribute("popularThisWeek", dishLogic.findPopularThisWeekDishIds());
+        session.setAttribute("menuVersion", menuVersion);
 
         Router router = new Router();
         router.setPage(PageManager.getProperty(PAGE_MENU));
+        router.setETag(eTag);
 
         return router;
     }
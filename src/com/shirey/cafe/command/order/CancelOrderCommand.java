@@ -4,13 +4,13 @@ import com.shirey.cafe.command.Command;
 import com.shirey.cafe.controller.Router;
 import com.shirey.cafe.entity.Order;
 import com.shirey.cafe.entity.User;
+import com.shirey.cafe.entity.UserRole;
 import com.shirey.cafe.exception.LogicException;
 import com.shirey.cafe.logic.OrderLogic;
 import com.shirey.cafe.logic.UserLogic;
 import com.shirey.cafe.manager.PageManager;
 
 import javax.servlet.http.HttpServletRequest;
-import java.util.List;
 
 /**
  * The {@code CancelOrderCommand} class
@@ -21,8 +21,9 @@ import java.util.List;
 
 public class CancelOrderCommand implements Command {
 
-    private static final String PAGE_CUSTOMER = "page.customer";
-    private static final String PAGE_ADMIN_ORDERS = "page.orders";
+    private static final String PAGE_CUSTOMER = "page.controller.customer";
+    private static final String PAGE_ADMIN_ORDERS = "page.controller.orders";
+    private static final String PARAM_USER_ID_TO_SHOW_ORDERS = "&userIdToShowOrders=";
     private static final String PARAM_ORDER_ID = "orderId";
     private OrderLogic orderLogic;
     private UserLogic userLogic;
@@ -33,12 +34,12 @@ public class CancelOrderCommand implements Command {
     }
 
     /**
-     * Gets the order id from the request.
-     * Checks, if the order status is not active (order can be auto cancelled, or cancelled/finished by admin before the customer),
-     * prevents to cancel it and returns router to the same page with a message.
-     * Cancels the order (subtracts loyalty points, updates database).
+     * Gets the order id from the request and the order from the database by id.
+     * Cancels the order (subtracts loyalty points, updates database) if it is still active.
+     * If the order status is not active (order can be auto cancelled, or cancelled/finished by admin before the customer),
+     * returns router to the same page with a message.
      * Checks, if the user has 3 cancelled orders, bans this user.
-     * Returns router to the same page.
+     * Returns router to the command that shows the same page.
      * <p>
      * This command can be called both by admin and customer.
      *
@@ -47,10 +48,9 @@ public class CancelOrderCommand implements Command {
      *                of the servlet
      * @return a {@code Router} object
      * @throws LogicException if {@code DaoException} occurs (database access error)
-     * @see OrderLogic#isOrderActive(Order)
      * @see OrderLogic#cancelOrder(User, Order)
      * @see OrderLogic#getUserCancelledOrdersAmount(int)
-     * @see UserLogic#findUserById(int)
+     * @see UserLogic#findActualUserById(int)
      * @see UserLogic#banUser(User)
      */
     @Override
@@ -58,12 +58,11 @@ public class CancelOrderCommand implements Command {
 
         int orderId = Integer.parseInt(request.getParameter(PARAM_ORDER_ID));
 
-        List<Order> orders = (List<Order>) request.getSession().getAttribute("orders");
-        Order order = orders.stream().filter(o -> o.getOrderId() == orderId).findAny().orElse(null);
+        Order order = findOrder(request, orderLogic, orderId);
 
         String currentPage = defineCurrentPage(request);
 
-        if (!orderLogic.isOrderActive(order)) {
+        if (order == null) {
             request.setAttribute("messageOrderIsAlreadyCancelled", true);
             return refreshForward(currentPage);
         }
@@ -72,33 +71,59 @@ public class CancelOrderCommand implements Command {
         if ("customer".equals(request.getSession().getAttribute("role"))) {
             user = (User) request.getSession().getAttribute("user");
         } else {
-            user = userLogic.findUserById(order.getUserId());
+            user = userLogic.findActualUserById(order.getUserId());
         }
 
-        orderLogic.cancelOrder(user, order);
+        if (!orderLogic.cancelOrder(user, order)) {
+            request.setAttribute("messageOrderIsAlreadyCancelled", true);
+            return refreshForward(currentPage);
+        }
 
         if (orderLogic.getUserCancelledOrdersAmount(order.getUserId()) == 3) {
             userLogic.banUser(user);
         }
 
-        if ("customer".equals(request.getSession().getAttribute("role"))) {
-            List<Order> activeOrders = (List) request.getSession().getAttribute("activeOrders");
-            List<Order> cancelledOrders = (List) request.getSession().getAttribute("cancelledOrders");
-            activeOrders.remove(order);
-            cancelledOrders.add(0, order);
-        }
-
         request.getSession().setAttribute("messageOrderCancelled", true);
 
         return refreshRedirect(currentPage);
     }
 
+    /**
+     * Cancelling the order and banning the user are made in one transaction.
+     *
+     * @return {@code true}
+     */
+    @Override
+    public boolean isTransactional() {
+        return true;
+    }
+
+    /**
+     * Gets the order by id from the database (by primary key).
+     * A customer can get only own orders.
+     *
+     * @param request    a request object
+     * @param orderLogic a logic object to find the order
+     * @param orderId    an order id
+     * @return a {@code Order} object, or {@code null} if the order is not found or belongs to another customer
+     * @throws LogicException if {@code DaoException} occurs (database access error)
+     */
+    static Order findOrder(HttpServletRequest request, OrderLogic orderLogic, int orderId) throws LogicException {
+
+        Order order = orderLogic.findOrderById(orderId);
+        User user = (User) request.getSession().getAttribute("user");
+        if (order != null && user.getRole() == UserRole.CUSTOMER && order.getUserId() != user.getUserId()) {
+            return null;
+        }
+        return order;
+    }
+
     /**
      * Defines from what page this command was called (depends on user role),
-     * and returns this page
+     * and returns the command that shows this page, so the page shows orders from the database.
      *
      * @param request a request object
-     * @return a current page
+     * @return a current page command
      */
     static String defineCurrentPage(HttpServletRequest request) {
 
@@ -109,6 +134,10 @@ public class CancelOrderCommand implements Command {
                 break;
             case ADMIN:
                 currentPage = PageManager.getProperty(PAGE_ADMIN_ORDERS);
+                User userToShowOrders = (User) request.getSession().getAttribute("userToShowOrders");
+                if (userToShowOrders != null) {
+                    currentPage += PARAM_USER_ID_TO_SHOW_ORDERS + userToShowOrders.getUserId();
+                }
                 break;
             default:
                 currentPage = PageManager.getProperty(Command.PAGE_INDEX);
@@ -7,7 +7,6 @@ import com.shirey.cafe.exception.LogicException;
 import com.shirey.cafe.logic.OrderLogic;
 
 import javax.servlet.http.HttpServletRequest;
-import java.util.List;
 
 /**
  * The {@code FinishOrderCommand} class
@@ -26,11 +25,11 @@ public class FinishOrderCommand implements Command {
     }
 
     /**
-     * Gets the order id from the request.
-     * Checks, if the order status is not active (order can be auto cancelled, or cancelled/finished by admin before the customer),
-     * prevents to finish it and returns router to the same page with a message.
-     * Finishes the order (updates database with new values).
-     * Returns router to the same page.
+     * Gets the order id from the request and the order from the database by id.
+     * Finishes the order (updates database with new values) if it is still active.
+     * If the order status is not active (order can be auto cancelled, or cancelled/finished by admin before the customer),
+     * returns router to the same page with a message.
+     * Returns router to the command that shows the same page.
      * <p>
      * This command can be called both by admin and customer.
      *
@@ -39,7 +38,6 @@ public class FinishOrderCommand implements Command {
      *                of the servlet
      * @return a {@code Router} object
      * @throws LogicException if {@code DaoException} occurs (database access error)
-     * @see OrderLogic#isOrderActive(Order)
      * @see OrderLogic#pickUpOrder(Order)
      */
     @Override
@@ -47,23 +45,16 @@ public class FinishOrderCommand implements Command {
 
         int orderId = Integer.parseInt(request.getParameter(PARAM_ORDER_ID));
 
-        List<Order> orders = (List<Order>) request.getSession().getAttribute("orders");
-        Order order = orders.stream().filter(o -> o.getOrderId() == orderId).findAny().orElse(null);
+        Order order = CancelOrderCommand.findOrder(request, orderLogic, orderId);
 
         String currentPage = CancelOrderCommand.defineCurrentPage(request);
 
-        if (!orderLogic.isOrderActive(order)) {
+        if (order == null || !orderLogic.pickUpOrder(order)) {
             request.setAttribute("messageOrderIsAlreadyCancelled", true);
             return refreshForward(currentPage);
         }
 
-        orderLogic.pickUpOrder(order);
-
         if ("customer".equals(request.getSession().getAttribute("role"))) {
-            List<Order> activeOrders = (List) request.getSession().getAttribute("activeOrders");
-            List<Order> finishedOrders = (List) request.getSession().getAttribute("finishedOrders");
-            activeOrders.remove(order);
-            finishedOrders.add(0, order);
             request.getSession().setAttribute("messageOrderPickedUp", true);
         } else {
             request.getSession().setAttribute("messageOrderFinished", true);
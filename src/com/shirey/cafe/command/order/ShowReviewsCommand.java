@@ -5,11 +5,13 @@ import com.shirey.cafe.controller.Router;
 import com.shirey.cafe.entity.Order;
 import com.shirey.cafe.entity.User;
 import com.shirey.cafe.exception.LogicException;
+import com.shirey.cafe.logic.ContentVersion;
 import com.shirey.cafe.logic.OrderLogic;
 import com.shirey.cafe.logic.UserLogic;
 import com.shirey.cafe.manager.PageManager;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
 import java.util.List;
 
 /**
@@ -22,6 +24,7 @@ import java.util.List;
 public class ShowReviewsCommand implements Command {
 
     private static final String PAGE_REVIEWS = "page.reviews";
+    private static final String ETAG_NAME = "reviews";
     private OrderLogic orderLogic;
     private UserLogic userLogic;
 
@@ -34,6 +37,8 @@ public class ShowReviewsCommand implements Command {
      * Gets orders and customers with reviews from the database and
      * sets this values as session attributes, then
      * returns router to the reviews page.
+     * If the client already has the current reviews page (If-None-Match header matches the entity tag),
+     * returns router with not modified route, the database is not used.
      *
      * @param request an {@link HttpServletRequest} object that
      *                contains the request the client has made
@@ -46,14 +51,22 @@ public class ShowReviewsCommand implements Command {
     @Override
     public Router execute(HttpServletRequest request) throws LogicException {
 
+        HttpSession session = request.getSession();
+        String eTag = defineETag(request, ETAG_NAME, ContentVersion.REVIEWS.get());
+        if (session.getAttribute("ordersWithReview") != null && session.getAttribute("messageReviewRemoved") == null
+                && isNotModified(request, eTag)) {
+            return notModified(request, PageManager.getProperty(PAGE_REVIEWS), eTag);
+        }
+
         List<Order> ordersWithReview = orderLogic.findOrdersWithReview();
         List<User> customersWithReview = userLogic.findUsersWithReview();
 
-        request.getSession().setAttribute("ordersWithReview", ordersWithReview);
-        request.getSession().setAttribute("customersWithReview", customersWithReview);
+        session.setAttribute("ordersWithReview", ordersWithReview);
+        session.setAttribute("customersWithReview", customersWithReview);
 
         Router router = new Router();
         router.setPage(PageManager.getProperty(PAGE_REVIEWS));
+        router.setETag(eTag);
 
         return router;
 
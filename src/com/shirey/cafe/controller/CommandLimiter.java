@@ -0,0 +1,105 @@
+package com.shirey.cafe.controller;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code CommandLimiter} class
+ * is a bulkhead that limits the amount of concurrently executed requests of one command.
+ * <p>
+ * If the limiter is adaptive, the limit is changed using AIMD (additive increase, multiplicative decrease) algorithm:
+ * if a request takes more time than the target time, the limit is multiplied by DECREASE_FACTOR
+ * (not more often than once per target time), otherwise the limit is increased by 1 / limit,
+ * but it never becomes greater than the max limit or less than MIN_LIMIT.
+ * <p>
+ * This class has package-private access level, it is used only by the {@code Controller}.
+ * Thread safe.
+ *
+ * @author Alex Shirey
+ */
+
+class CommandLimiter {
+
+    private static final int MIN_LIMIT = 1;
+    private static final double DECREASE_FACTOR = 0.75;
+
+    private final int maxLimit;
+    private final boolean adaptive;
+    private final long targetTimeNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private double exactLimit;
+    private long lastDecreaseTime;
+
+    /**
+     * @param maxLimit         the max amount of concurrently executed requests, also the initial limit
+     * @param adaptive         {@code true} if the limit should be changed depending on requests time
+     * @param targetTimeMillis a request time above which the limit is decreased
+     * @throws IllegalArgumentException if maxLimit is less than MIN_LIMIT
+     */
+    CommandLimiter(int maxLimit, boolean adaptive, long targetTimeMillis) {
+        if (maxLimit < MIN_LIMIT) {
+            throw new IllegalArgumentException("limit can't be less than " + MIN_LIMIT);
+        }
+        this.maxLimit = maxLimit;
+        this.adaptive = adaptive;
+        this.targetTimeNanos = TimeUnit.MILLISECONDS.toNanos(targetTimeMillis);
+        this.limit = maxLimit;
+        this.exactLimit = maxLimit;
+        this.lastDecreaseTime = System.nanoTime() - targetTimeNanos - 1;
+    }
+
+    /**
+     * Takes a permit to execute a request, if the current limit is not reached.
+     * Doesn't wait for a permit.
+     *
+     * @return {@code true} if the permit was taken and {@link #release(long)} must be called, {@code false} otherwise
+     */
+    boolean tryAcquire() {
+
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Returns the permit and adjusts the limit (if the limiter is adaptive) using the request time.
+     *
+     * @param startTime a value of {@code System.nanoTime()} when the permit was taken
+     */
+    void release(long startTime) {
+
+        inFlight.decrementAndGet();
+        if (adaptive) {
+            long now = System.nanoTime();
+            adjustLimit(now - startTime, now);
+        }
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void adjustLimit(long requestTime, long now) {
+
+        if (requestTime > targetTimeNanos) {
+            if (now - lastDecreaseTime > targetTimeNanos) {
+                exactLimit = Math.max(MIN_LIMIT, exactLimit * DECREASE_FACTOR);
+                lastDecreaseTime = now;
+            }
+        } else if (exactLimit < maxLimit) {
+            exactLimit = Math.min(maxLimit, exactLimit + 1.0 / exactLimit);
+        }
+        limit = (int) exactLimit;
+    }
+
+}
@@ -2,10 +2,16 @@ package com.shirey.cafe.controller;
 
 import com.shirey.cafe.command.Command;
 import com.shirey.cafe.command.CommandFactory;
+import com.shirey.cafe.command.CommandType;
 
 import com.shirey.cafe.db.ConnectionPool;
+import com.shirey.cafe.db.UnitOfWork;
+import com.shirey.cafe.exception.ConnectionException;
 import com.shirey.cafe.exception.LogicException;
 import com.shirey.cafe.exception.UnsupportedCommandException;
+import com.shirey.cafe.logic.PopularDishes;
+import com.shirey.cafe.logic.SalesAnalytics;
+import com.shirey.cafe.manager.ApplicationManager;
 import com.shirey.cafe.manager.PageManager;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
@@ -19,21 +25,79 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The {@code Controller} class
  * is a main HttpServlet for current Web project.
  * Overrides doPost and doGet methods by calling
  * the own method processRequest(request, response).
+ * <p>
+ * Each command has own {@code CommandLimiter} (bulkhead), so slow commands can't take
+ * all server threads and database connections from other commands.
+ * Limits are set in the application properties file.
+ * <p>
+ * The servlet is loaded on startup, so popular dishes are rebuilt and flushing of sales counters is started
+ * before the first request, and the first request doesn't wait for the scan of orders.
  *
  * @author Alex Shirey
  */
 
-@WebServlet(name = "controller", urlPatterns = {"/controller"})
+@WebServlet(name = "controller", urlPatterns = {"/controller"}, loadOnStartup = 1)
 public class Controller extends HttpServlet {
 
     private static final Logger LOGGER = LogManager.getLogger(Controller.class);
 
+    /**
+     * Min time between two log records about unsupported commands.
+     */
+    private static final long UNSUPPORTED_COMMAND_LOG_INTERVAL = TimeUnit.SECONDS.toMillis(10);
+    private final AtomicLong lastUnsupportedCommandLogTime = new AtomicLong();
+    private final AtomicInteger suppressedUnsupportedCommands = new AtomicInteger();
+
+    private static final String LIMIT_KEY_PREFIX = "app.commandLimit.";
+    private static final String DEFAULT_LIMIT_KEY = "app.commandLimit.default";
+    private static final String CRITICAL_COMMANDS_KEY = "app.criticalCommands";
+    private static final String TARGET_TIME_KEY = "app.commandLimitTargetTimeInMillis";
+    private static final String RETRY_AFTER_SECONDS = "1";
+    private Map<CommandType, CommandLimiter> limiters;
+
+    /**
+     * Creates limiters for all commands using values from the properties file,
+     * starts flushing of sales counters and rebuilds popular dishes from the database.
+     *
+     * @throws ServletException if a limit or the target time in the properties file is not a positive number
+     */
+    @Override
+    public void init() throws ServletException {
+
+        try {
+            int defaultLimit = Integer.parseInt(ApplicationManager.getProperty(DEFAULT_LIMIT_KEY));
+            long targetTime = Long.parseLong(ApplicationManager.getProperty(TARGET_TIME_KEY));
+            Set<String> criticalCommands = new HashSet<>(Arrays.asList(ApplicationManager.getProperty(CRITICAL_COMMANDS_KEY).split("\\s*,\\s*")));
+
+            limiters = new EnumMap<>(CommandType.class);
+            for (CommandType type : CommandType.values()) {
+                String name = type.name().toLowerCase();
+                String limitKey = LIMIT_KEY_PREFIX + name;
+                int limit = ApplicationManager.containsKey(limitKey) ? Integer.parseInt(ApplicationManager.getProperty(limitKey)) : defaultLimit;
+                limiters.put(type, new CommandLimiter(limit, !criticalCommands.contains(name), targetTime));
+            }
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.ERROR, "command limits are not valid, check application resources.configuration file.", e);
+            throw new ServletException("command limits are not valid, check application resources.configuration file.", e);
+        }
+        SalesAnalytics.startFlushing();
+        PopularDishes.rebuild();
+    }
+
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
         processRequest(request, response);
@@ -46,6 +110,7 @@ public class Controller extends HttpServlet {
 
     @Override
     public void destroy() {
+        SalesAnalytics.stopFlushing();
         ConnectionPool.getInstance().closeConnections();
     }
 
@@ -54,7 +119,10 @@ public class Controller extends HttpServlet {
      * Gets the command from the request, and calls method execute(request) on it that has
      * own implementation for each command.
      * Sets the type how request and response should be processed after this controller or
-     * redirect a response to the error page if UnsupportedCommandException or LogicException occurs.
+     * redirect a response to the error page if LogicException occurs.
+     * If the command is not supported, sends 404 error without creating a router.
+     * If the limit of concurrently executed requests of this command is reached, sends 503 error
+     * without waiting.
      *
      * @param request  an {@link HttpServletRequest} object that
      *                 contains the request the client has made
@@ -70,11 +138,53 @@ public class Controller extends HttpServlet {
      */
     private void processRequest(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
 
-        Router router;
+        CommandType commandType;
+        try {
+            commandType = CommandFactory.defineCommandType(request.getParameter("command"));
+        } catch (UnsupportedCommandException e) {
+            logUnsupportedCommand(e);
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        CommandLimiter limiter = limiters.get(commandType);
+        if (!limiter.tryAcquire()) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.log(Level.DEBUG, "request rejected, limit of command {} is reached: {}", commandType, limiter.getLimit());
+            }
+            response.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+
+        long startTime = System.nanoTime();
         try {
-            Command command = CommandFactory.defineCommand(request.getParameter("command"));
+            executeCommand(commandType.getCommand(), request, response);
+        } finally {
+            limiter.release(startTime);
+        }
+    }
+
+    /**
+     * Executes the command and forwards or redirects the request
+     * depending on the returned router, or sends 304 (not modified) status.
+     * <p>
+     * The command is executed in a {@code UnitOfWork}. If the command is transactional, all its database calls
+     * use one connection (in one transaction), the connection is returned to the pool before forwarding or redirecting.
+     *
+     * @param command  a command to execute
+     * @param request  a request object
+     * @param response a response object
+     * @throws IOException      if an input or output error occurs
+     * @throws ServletException if the request could not be handled
+     */
+    private void executeCommand(Command command, HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+
+        Router router;
+        try (UnitOfWork unitOfWork = UnitOfWork.begin(command.isTransactional())) {
             router = command.execute(request);
-        } catch (UnsupportedCommandException | LogicException e) {
+            unitOfWork.commit();
+        } catch (LogicException | ConnectionException e) {
             router = new Router();
             router.setPage(PageManager.getProperty("page.error"));
             router.setRoute(Router.RouteType.REDIRECT);
@@ -82,7 +192,15 @@ public class Controller extends HttpServlet {
             LOGGER.log(Level.ERROR, e.getMessage(), e);
         }
 
+        if (router.getETag() != null) {
+            response.setHeader("ETag", router.getETag());
+            response.setHeader("Cache-Control", "private, no-cache");
+        }
+
         switch (router.getRoute()) {
+            case NOT_MODIFIED:
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                break;
             case FORWARD:
                 RequestDispatcher dispatcher = request.getServletContext().getRequestDispatcher(router.getPage());
                 dispatcher.forward(request, response);
@@ -91,4 +209,21 @@ public class Controller extends HttpServlet {
                 response.sendRedirect(request.getContextPath() + router.getPage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Logs the unsupported command not more often than once in UNSUPPORTED_COMMAND_LOG_INTERVAL,
+     * other records are only counted and the amount of them is written with the next record.
+     *
+     * @param e an exception to log
+     */
+    private void logUnsupportedCommand(UnsupportedCommandException e) {
+
+        long now = System.currentTimeMillis();
+        long lastLogTime = lastUnsupportedCommandLogTime.get();
+        if (now - lastLogTime >= UNSUPPORTED_COMMAND_LOG_INTERVAL && lastUnsupportedCommandLogTime.compareAndSet(lastLogTime, now)) {
+            LOGGER.log(Level.WARN, "{} (suppressed similar records: {})", e.getMessage(), suppressedUnsupportedCommands.getAndSet(0));
+        } else {
+            suppressedUnsupportedCommands.incrementAndGet();
+        }
+    }
+}
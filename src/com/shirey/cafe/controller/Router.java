@@ -3,7 +3,7 @@ package com.shirey.cafe.controller;
 /**
  * The {@code Router} class
  * contains two fields -
- * page and RouteTpe,
+ * page and RouteTpe (and optional entity tag of the page),
  * that are used with a controller to find out where and how
  * a request and response should be processed after the controller.
  *
@@ -13,11 +13,16 @@ package com.shirey.cafe.controller;
 public class Router {
 
     public enum RouteType {
-        FORWARD, REDIRECT
+        FORWARD, REDIRECT, NOT_MODIFIED
     }
 
     private String page;
 
+    /**
+     * An entity tag of the page, if it is set, the controller sends it in the ETag header.
+     */
+    private String eTag;
+
     /**
      * Sets the default route type to FORWARD
      */
@@ -38,4 +43,12 @@ public class Router {
     public void setRoute(RouteType route) {
         this.route = route;
     }
+
+    String getETag() {
+        return eTag;
+    }
+
+    public void setETag(String eTag) {
+        this.eTag = eTag;
+    }
 }
@@ -42,7 +42,7 @@ public abstract class AbstractDAO<K, T extends Entity> {
      *
      * @throws DAOException if SQLException occurs
      */
-    void returnConnection(ProxyConnection proxyConnection) throws DAOException {
+    static void returnConnection(ProxyConnection proxyConnection) throws DAOException {
         try {
             if (proxyConnection != null) {
                 proxyConnection.setAutoCommit(true);
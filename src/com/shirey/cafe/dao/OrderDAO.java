@@ -4,6 +4,7 @@ import com.shirey.cafe.db.ConnectionPool;
 import com.shirey.cafe.db.ProxyConnection;
 import com.shirey.cafe.entity.Dish;
 import com.shirey.cafe.entity.Order;
+import com.shirey.cafe.entity.OrderHistory;
 import com.shirey.cafe.entity.PaymentType;
 import com.shirey.cafe.exception.ConnectionException;
 import com.shirey.cafe.exception.DAOException;
@@ -14,6 +15,9 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -40,8 +44,8 @@ public class OrderDAO extends AbstractDAO<Integer, Order> {
     private static final String SQL_UPDATE_USER_LOYALTY_POINTS =
             "UPDATE `user` SET loyalty_points=? WHERE user_id=?;";
 
-    private static final String SQL_UPDATE_ORDER_STATUS =
-            "UPDATE `order` SET status=? WHERE order_id=?";
+    private static final String SQL_UPDATE_ACTIVE_ORDER_STATUS =
+            "UPDATE `order` SET status=? WHERE order_id=? AND `status`='ACTIVE'";
 
     private static final String SQL_SELECT_ORDER_BY_ID =
             "SELECT order_id, user_id, payment_type, pick_up_time, order_price, is_paid, status, create_date, rating, review FROM `order` WHERE order_id=?;";
@@ -58,14 +62,44 @@ public class OrderDAO extends AbstractDAO<Integer, Order> {
     private static final String SQL_SELECT_CANCELLED_ORDERS_BY_USER_ID =
             "SELECT order_id, user_id, payment_type, pick_up_time, order_price, is_paid, status, create_date, rating, review FROM `order` WHERE user_id=? AND `status`='CANCELLED'";
 
+    private static final String SQL_SELECT_ORDER_HISTORY_BY_USER_ID =
+            "SELECT o.order_id, o.user_id, o.payment_type, o.pick_up_time, o.order_price, o.is_paid, o.status, o.create_date, o.rating, o.review, " +
+                    "(SELECT COUNT(*) FROM `order` c WHERE c.user_id=o.user_id AND c.`status`=o.`status`) AS status_count FROM (" +
+                    "(SELECT * FROM `order` WHERE user_id=? AND `status`='ACTIVE' ORDER BY order_id DESC LIMIT ?) UNION ALL " +
+                    "(SELECT * FROM `order` WHERE user_id=? AND `status`='CANCELLED' ORDER BY order_id DESC LIMIT ?) UNION ALL " +
+                    "(SELECT * FROM `order` WHERE user_id=? AND `status`='FINISHED' ORDER BY order_id DESC LIMIT ?)) o " +
+                    "ORDER BY o.order_id DESC";
+
+    private static final String SQL_SELECT_ORDERS_PAGE_BY_USER_ID_AND_STATUS =
+            "SELECT order_id, user_id, payment_type, pick_up_time, order_price, is_paid, status, create_date, rating, review FROM `order` " +
+                    "WHERE user_id=? AND `status`=? AND order_id<? ORDER BY order_id DESC LIMIT ?";
+
     private static final String SQL_SELECT_ORDERS_WITH_REVIEW =
             "SELECT order_id, user_id, payment_type, pick_up_time, order_price, is_paid, status, create_date, rating, review FROM `order` WHERE review IS NOT NULL";
 
     private static final String SQL_UPDATE_ORDER_RATING_AND_REVIEW =
             "UPDATE `order` SET rating=?, review=? WHERE order_id=?";
 
-    private static final String SQL_UPDATE_ORDER_IS_PAID_AND_STATUS =
-            "UPDATE `order` SET is_paid=?, status=? WHERE order_id=?";
+    private static final String SQL_UPDATE_ACTIVE_ORDER_IS_PAID_AND_STATUS =
+            "UPDATE `order` SET is_paid=?, status=? WHERE order_id=? AND `status`='ACTIVE'";
+
+    private static final String SQL_SELECT_ORDER_LINES_FROM_DATE =
+            "SELECT d.dish_id, d.dish_quantity, o.create_date FROM `order` o JOIN `order_has_dish` d ON d.order_id=o.order_id " +
+                    "WHERE o.create_date>=?";
+
+    /**
+     * A handler of order lines that are read one by one by
+     * {@link #scanOrderLines(Date, OrderLineHandler)}.
+     */
+    public interface OrderLineHandler {
+
+        /**
+         * @param dishId     a dish id
+         * @param quantity   a quantity of the dish in the order
+         * @param createDate a date when the order was made
+         */
+        void handle(int dishId, int quantity, Date createDate);
+    }
 
 
     /**
@@ -136,21 +170,25 @@ public class OrderDAO extends AbstractDAO<Integer, Order> {
             }
             throw new DAOException("SQL exception (query or table failed)", e);
         } finally {
+            UserCache.getInstance().invalidate(order.getUserId());
             returnConnection(connection);
         }
     }
 
     /**
-     * Updates the table 'user' with new loyaltyPoints value,
-     * updates the table 'order' with new order status value.
+     * Updates the table 'order' with new order status value if the order is still active,
+     * and if it was updated, updates the table 'user' with new loyaltyPoints value.
+     * Both updates are made in one transaction, the order status is changed by one conditional statement,
+     * so the order can't be changed twice by concurrent requests.
      *
      * @param loyaltyPoints a user loyalty points value to update
      * @param order         a {@code Order} object to get order id and user id values
      * @param status        a order status value to update
+     * @return {@code true} if the order was active and was updated, {@code false} if the order is not active
      * @throws DAOException if a database access error occurs or
-     *                      if now rows where updated
+     *                      if the user row wasn't updated (the transaction is rolled back)
      */
-    public void cancelOrder(BigDecimal loyaltyPoints, Order order, Order.Status status) throws DAOException {
+    public boolean cancelOrder(BigDecimal loyaltyPoints, Order order, Order.Status status) throws DAOException {
 
         ProxyConnection connection;
         try {
@@ -159,21 +197,28 @@ public class OrderDAO extends AbstractDAO<Integer, Order> {
             throw new DAOException(e);
         }
 
-        try (PreparedStatement updateUser = connection.prepareStatement(SQL_UPDATE_USER_LOYALTY_POINTS);
-             PreparedStatement updateOrder = connection.prepareStatement(SQL_UPDATE_ORDER_STATUS)) {
+        try (PreparedStatement updateOrder = connection.prepareStatement(SQL_UPDATE_ACTIVE_ORDER_STATUS);
+             PreparedStatement updateUser = connection.prepareStatement(SQL_UPDATE_USER_LOYALTY_POINTS)) {
 
             connection.setAutoCommit(false);
 
-            updateUser.setBigDecimal(1, loyaltyPoints);
-            updateUser.setInt(2, order.getUserId());
-
             updateOrder.setString(1, status.name());
             updateOrder.setInt(2, order.getOrderId());
 
-            if (updateUser.executeUpdate() == 0 || updateOrder.executeUpdate() == 0) {
+            if (updateOrder.executeUpdate() == 0) {
+                connection.rollback();
+                return false;
+            }
+
+            updateUser.setBigDecimal(1, loyaltyPoints);
+            updateUser.setInt(2, order.getUserId());
+
+            if (updateUser.executeUpdate() == 0) {
+                connection.rollback();
                 throw new DAOException("Cancelling order failed (updating user and order tables), no rows affected.");
             }
             connection.commit();
+            return true;
         } catch (SQLException e) {
             try {
                 connection.rollback();
@@ -182,6 +227,7 @@ public class OrderDAO extends AbstractDAO<Integer, Order> {
             }
             throw new DAOException("SQL exception (query or table failed)", e);
         } finally {
+            UserCache.getInstance().invalidate(order.getUserId());
             returnConnection(connection);
         }
     }
@@ -266,6 +312,79 @@ public class OrderDAO extends AbstractDAO<Integer, Order> {
         return orders;
     }
 
+    /**
+     * Gets the first page of user's orders of each status and the amount of user's orders of each status
+     * by one query (the amount is counted using the index on user id and status).
+     *
+     * @param userId   a user id
+     * @param pageSize the max amount of orders of one status
+     * @return a {@code OrderHistory} object, not null
+     * @throws DAOException if a database access error occurs
+     */
+    public OrderHistory findOrderHistory(int userId, int pageSize) throws DAOException {
+
+        Map<Order.Status, List<Order>> orders = new EnumMap<>(Order.Status.class);
+        Map<Order.Status, Integer> counts = new EnumMap<>(Order.Status.class);
+        try (ProxyConnection connection = ConnectionPool.getInstance().getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_SELECT_ORDER_HISTORY_BY_USER_ID)) {
+            for (int i = 1; i <= 6; i += 2) {
+                preparedStatement.setInt(i, userId);
+                preparedStatement.setInt(i + 1, pageSize);
+            }
+            ResultSet rs = preparedStatement.executeQuery();
+            while (rs.next()) {
+                Order order = buildOrder(rs);
+                orders.computeIfAbsent(order.getStatus(), status -> new ArrayList<>()).add(order);
+                counts.put(order.getStatus(), rs.getInt("status_count"));
+            }
+        } catch (ConnectionException e) {
+            throw new DAOException(e);
+        } catch (SQLException e) {
+            throw new DAOException("SQL exception (query or table failed)", e);
+        }
+
+        Map<Order.Status, OrderHistory.Bucket> buckets = new EnumMap<>(Order.Status.class);
+        for (Map.Entry<Order.Status, List<Order>> entry : orders.entrySet()) {
+            List<Order> page = entry.getValue();
+            int count = counts.get(entry.getKey());
+            Integer nextCursor = page.size() < count ? page.get(page.size() - 1).getOrderId() : null;
+            buckets.put(entry.getKey(), new OrderHistory.Bucket(page, count, nextCursor, true));
+        }
+        return new OrderHistory(buckets);
+    }
+
+    /**
+     * Gets a page of user's orders with the given status, which ids are less than the cursor,
+     * returns them as a list of {@code Order} objects, newest first
+     *
+     * @param userId a user id
+     * @param status an order status
+     * @param cursor an order id, orders with less ids are found
+     * @param limit  the max amount of orders
+     * @return a list contains {@code Order}, not null
+     * @throws DAOException if a database access error occurs
+     */
+    public List<Order> findOrdersPage(int userId, Order.Status status, int cursor, int limit) throws DAOException {
+
+        List<Order> orders = new ArrayList<>();
+        try (ProxyConnection connection = ConnectionPool.getInstance().getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_SELECT_ORDERS_PAGE_BY_USER_ID_AND_STATUS)) {
+            preparedStatement.setInt(1, userId);
+            preparedStatement.setString(2, status.name());
+            preparedStatement.setInt(3, cursor);
+            preparedStatement.setInt(4, limit);
+            ResultSet rs = preparedStatement.executeQuery();
+            while (rs.next()) {
+                orders.add(buildOrder(rs));
+            }
+        } catch (ConnectionException e) {
+            throw new DAOException(e);
+        } catch (SQLException e) {
+            throw new DAOException("SQL exception (query or table failed)", e);
+        }
+        return orders;
+    }
+
     /**
      * Gets all rows from the table 'order' for one user (using user id) where order status is ACTIVE,
      * returns them as a list of {@code Order} objects in reverse order
@@ -378,23 +497,50 @@ public class OrderDAO extends AbstractDAO<Integer, Order> {
 
     /**
      * Updates a row in the table using order id
-     * with new isPaid and status values
+     * with new isPaid and status values if the order is still active.
+     * The status is checked and changed by one conditional statement.
      *
      * @param orderId a order id
      * @param isPaid  a new isPaid value
      * @param status  a new status value
-     * @throws DAOException if {@code DaoException} occurs (database access error) or
-     *                      if now rows where updated
+     * @return {@code true} if the order was active and was updated, {@code false} otherwise
+     * @throws DAOException if {@code DaoException} occurs (database access error)
      */
-    public void updateOrder(int orderId, boolean isPaid, Order.Status status) throws DAOException {
+    public boolean updateActiveOrder(int orderId, boolean isPaid, Order.Status status) throws DAOException {
 
         try (ProxyConnection connection = ConnectionPool.getInstance().getConnection();
-             PreparedStatement updateOrder = connection.prepareStatement(SQL_UPDATE_ORDER_IS_PAID_AND_STATUS)) {
+             PreparedStatement updateOrder = connection.prepareStatement(SQL_UPDATE_ACTIVE_ORDER_IS_PAID_AND_STATUS)) {
             updateOrder.setBoolean(1, isPaid);
             updateOrder.setString(2, status.name());
             updateOrder.setInt(3, orderId);
-            if (updateOrder.executeUpdate() == 0) {
-                throw new DAOException("Updating order failed (updating user and order tables), no rows affected.");
+            return updateOrder.executeUpdate() != 0;
+        } catch (ConnectionException e) {
+            throw new DAOException(e);
+        } catch (SQLException e) {
+            throw new DAOException("SQL exception (query or table failed)", e);
+        }
+    }
+
+    /**
+     * Reads rows of the table 'order_has_dish' of orders made since the date (all statuses)
+     * and passes them to the handler one by one. Rows are streamed from the database
+     * and are not kept in memory, so the amount of rows is not limited.
+     *
+     * @param from    the first date
+     * @param handler a handler of rows
+     * @throws DAOException if a database access error occurs
+     */
+    public void scanOrderLines(Date from, OrderLineHandler handler) throws DAOException {
+
+        try (ProxyConnection connection = ConnectionPool.getInstance().getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_SELECT_ORDER_LINES_FROM_DATE,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // MySQL driver streams rows one by one instead of reading the whole result
+            preparedStatement.setFetchSize(Integer.MIN_VALUE);
+            preparedStatement.setTimestamp(1, new Timestamp(from.getTime()));
+            ResultSet rs = preparedStatement.executeQuery();
+            while (rs.next()) {
+                handler.handle(rs.getInt("dish_id"), rs.getInt("dish_quantity"), rs.getTimestamp("create_date"));
             }
         } catch (ConnectionException e) {
             throw new DAOException(e);
@@ -0,0 +1,114 @@
+package com.shirey.cafe.dao;
+
+import com.shirey.cafe.db.ConnectionPool;
+import com.shirey.cafe.db.ProxyConnection;
+import com.shirey.cafe.entity.SalesBucket;
+import com.shirey.cafe.exception.ConnectionException;
+import com.shirey.cafe.exception.DAOException;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The {@code SalesRollupDAO} class
+ * provides access to the table 'sales_rollup' in the database -
+ * pre-aggregated sales counters, one row per dimension and bucket.
+ *
+ * @author Alex Shirey
+ */
+
+public class SalesRollupDAO {
+
+    private static final String SQL_ADD_TO_BUCKET =
+            "INSERT INTO sales_rollup (dimension, bucket, orders_made, made_amount, orders_cancelled, cancelled_amount, orders_finished, dish_quantity) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+                    "orders_made=orders_made+VALUES(orders_made), made_amount=made_amount+VALUES(made_amount), " +
+                    "orders_cancelled=orders_cancelled+VALUES(orders_cancelled), cancelled_amount=cancelled_amount+VALUES(cancelled_amount), " +
+                    "orders_finished=orders_finished+VALUES(orders_finished), dish_quantity=dish_quantity+VALUES(dish_quantity);";
+
+    private static final String SQL_SELECT_BUCKETS_BY_DIMENSION =
+            "SELECT dimension, bucket, name, orders_made, made_amount, orders_cancelled, cancelled_amount, orders_finished, dish_quantity " +
+                    "FROM sales_rollup LEFT JOIN dish ON dimension='DISH' AND dish_id=bucket WHERE dimension=? AND bucket>=?;";
+
+    /**
+     * Adds counters of the buckets to the rows of the same dimension and bucket,
+     * inserts a row if there is no such row. All buckets are added by one batch in one transaction.
+     *
+     * @param buckets buckets with counters to add
+     * @throws DAOException if a database access error occurs (the transaction is rolled back)
+     */
+    public void addAll(Collection<SalesBucket> buckets) throws DAOException {
+
+        ProxyConnection connection;
+        try {
+            connection = ConnectionPool.getInstance().getConnection();
+        } catch (ConnectionException e) {
+            throw new DAOException(e);
+        }
+
+        try (PreparedStatement preparedStatement = connection.prepareStatement(SQL_ADD_TO_BUCKET)) {
+
+            connection.setAutoCommit(false);
+            for (SalesBucket bucket : buckets) {
+                preparedStatement.setString(1, bucket.getDimension().name());
+                preparedStatement.setString(2, bucket.getBucket());
+                preparedStatement.setInt(3, bucket.getOrdersMade());
+                preparedStatement.setBigDecimal(4, bucket.getMadeAmount());
+                preparedStatement.setInt(5, bucket.getOrdersCancelled());
+                preparedStatement.setBigDecimal(6, bucket.getCancelledAmount());
+                preparedStatement.setInt(7, bucket.getOrdersFinished());
+                preparedStatement.setInt(8, bucket.getDishQuantity());
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException e1) {
+                throw new DAOException("SQL exception, rollback wasn't made", e);
+            }
+            throw new DAOException("SQL exception (query or table failed)", e);
+        } finally {
+            AbstractDAO.returnConnection(connection);
+        }
+    }
+
+    /**
+     * Gets rows of the dimension starting from the bucket (buckets are compared as strings)
+     * from the primary key of the table, returns them as a list of {@code SalesBucket} objects.
+     * Buckets of the dish dimension are labeled with dish names.
+     *
+     * @param dimension  a dimension
+     * @param fromBucket the first bucket, an empty string for all buckets
+     * @return a list contains {@code SalesBucket}, not null
+     * @throws DAOException if a database access error occurs
+     */
+    public List<SalesBucket> findBuckets(SalesBucket.Dimension dimension, String fromBucket) throws DAOException {
+
+        List<SalesBucket> buckets = new ArrayList<>();
+        try (ProxyConnection connection = ConnectionPool.getInstance().getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_SELECT_BUCKETS_BY_DIMENSION)) {
+            preparedStatement.setString(1, dimension.name());
+            preparedStatement.setString(2, fromBucket);
+            ResultSet rs = preparedStatement.executeQuery();
+            while (rs.next()) {
+                buckets.add(new SalesBucket(SalesBucket.Dimension.valueOf(rs.getString("dimension")),
+                        rs.getString("bucket"), rs.getString("name"),
+                        rs.getInt("orders_made"), rs.getBigDecimal("made_amount"),
+                        rs.getInt("orders_cancelled"), rs.getBigDecimal("cancelled_amount"),
+                        rs.getInt("orders_finished"), rs.getInt("dish_quantity")));
+            }
+        } catch (ConnectionException e) {
+            throw new DAOException(e);
+        } catch (SQLException e) {
+            throw new DAOException("SQL exception (query or table failed)", e);
+        }
+        return buckets;
+    }
+
+}
@@ -0,0 +1,217 @@
+package com.shirey.cafe.dao;
+
+import com.shirey.cafe.db.UnitOfWork;
+import com.shirey.cafe.entity.User;
+import com.shirey.cafe.manager.ApplicationManager;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * The {@code UserCache} class
+ * is a size-bounded cache of {@code User} objects by user id, entries expire after the time to live,
+ * least recently used entries are evicted when the cache is full.
+ * <p>
+ * A user is invalidated by every update of the table 'user' ({@code UserDAO} update methods and
+ * {@code OrderDAO} methods that change balance and loyalty points). If the update is made in
+ * a transactional {@code UnitOfWork}, the user is invalidated once more after the transaction is completed.
+ * A user loaded before an invalidation of this user is not put to the cache. The generation of the last
+ * invalidation is kept for recently invalidated users (as many as the capacity), so updates of other users
+ * don't prevent putting users.
+ * <p>
+ * The cache stores and returns copies, so callers can change returned objects.
+ * Hits, misses, evictions and expirations are counted, the statistics are logged (INFO)
+ * every app.userCacheStatisticsLogInterval requests.
+ * Thread safe.
+ *
+ * @author Alex Shirey
+ */
+
+public class UserCache {
+
+    private static final Logger LOGGER = LogManager.getLogger(UserCache.class);
+    private static final long STATISTICS_LOG_INTERVAL =
+            Long.parseLong(ApplicationManager.getProperty("app.userCacheStatisticsLogInterval"));
+    private static final UserCache INSTANCE = new UserCache(
+            Integer.parseInt(ApplicationManager.getProperty("app.userCacheSize")),
+            TimeUnit.SECONDS.toNanos(Long.parseLong(ApplicationManager.getProperty("app.userCacheTtlInSeconds"))),
+            System::nanoTime);
+
+    private final Map<Integer, CachedUser> users;
+    private final long timeToLive;
+    private final LongSupplier clock;
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong expirationCount = new AtomicLong();
+    private final Map<Integer, Long> invalidations;
+    private long generation;
+    private long forgottenGeneration;
+
+    /**
+     * @param capacity   the max amount of cached users
+     * @param timeToLive time to live of an entry in nanoseconds
+     * @param clock      a source of the current time in nanoseconds
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    UserCache(int capacity, long timeToLive, LongSupplier clock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity can't be less than 1");
+        }
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+        users = new LinkedHashMap<Integer, CachedUser>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CachedUser> eldest) {
+                if (size() > capacity) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        invalidations = new LinkedHashMap<Integer, Long>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Long> eldest) {
+                if (size() > capacity) {
+                    forgottenGeneration = eldest.getValue();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static UserCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param userId a user id
+     * @return a copy of the cached user, or {@code null} if the user is not cached or the entry is expired
+     */
+    User get(int userId) {
+
+        if (requestCount.incrementAndGet() % STATISTICS_LOG_INTERVAL == 0) {
+            LOGGER.log(Level.INFO, "user cache: hit ratio {}, hits {}, misses {}, evictions {}, expirations {}, size {}.",
+                    String.format("%.3f", getHitRatio()), getHitCount(), getMissCount(), getEvictionCount(),
+                    getExpirationCount(), size());
+        }
+        User user;
+        synchronized (this) {
+            CachedUser entry = users.get(userId);
+            if (entry != null && clock.getAsLong() - entry.createTime > timeToLive) {
+                users.remove(userId);
+                expirationCount.incrementAndGet();
+                entry = null;
+            }
+            if (entry == null) {
+                missCount.incrementAndGet();
+                return null;
+            }
+            user = entry.user;
+        }
+        hitCount.incrementAndGet();
+        return copy(user);
+    }
+
+    /**
+     * @return the current generation, it should be got before loading a user from the database
+     */
+    synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Puts a copy of the user if the user was not invalidated since the given generation.
+     * If the generation of the last invalidation of the user is already forgotten, the generation
+     * of the latest forgotten invalidation is used.
+     *
+     * @param user       a user loaded from the database, not null
+     * @param generation the generation that was got before loading the user
+     */
+    void put(User user, long generation) {
+
+        CachedUser entry = new CachedUser(copy(user), clock.getAsLong());
+        synchronized (this) {
+            Long invalidated = invalidations.get(user.getUserId());
+            if ((invalidated != null ? invalidated : forgottenGeneration) <= generation) {
+                users.put(user.getUserId(), entry);
+            }
+        }
+    }
+
+    /**
+     * Removes the user, and if the current thread has an active transactional unit of work,
+     * removes the user once more when the transaction is completed.
+     *
+     * @param userId a user id
+     */
+    void invalidate(int userId) {
+        remove(userId);
+        UnitOfWork.afterCompletion(() -> remove(userId));
+    }
+
+    private synchronized void remove(int userId) {
+        users.remove(userId);
+        generation++;
+        invalidations.remove(userId);
+        invalidations.put(userId, generation);
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public long getExpirationCount() {
+        return expirationCount.get();
+    }
+
+    /**
+     * @return the ratio of hits to all requests, 0 if there were no requests
+     */
+    public double getHitRatio() {
+        long hits = hitCount.get();
+        long requests = hits + missCount.get();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    public synchronized int size() {
+        return users.size();
+    }
+
+    private static User copy(User user) {
+        try {
+            return user.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("user can't be cloned", e);
+        }
+    }
+
+    private static class CachedUser {
+
+        private final User user;
+        private final long createTime;
+
+        private CachedUser(User user, long createTime) {
+            this.user = user;
+            this.createTime = createTime;
+        }
+    }
+
+}
@@ -3,6 +3,7 @@ package com.shirey.cafe.dao;
 import com.shirey.cafe.db.ConnectionPool;
 import com.shirey.cafe.db.ProxyConnection;
 import com.shirey.cafe.entity.User;
+import com.shirey.cafe.entity.UserSearch;
 import com.shirey.cafe.exception.ConnectionException;
 import com.shirey.cafe.exception.DAOException;
 
@@ -24,7 +25,7 @@ import java.util.List;
 public class UserDAO extends AbstractDAO<Integer, User> {
 
     private static final String SQL_INSERT_NEW_USER =
-            "INSERT INTO user (email, password, first_name, last_name, phone) VALUES (?, MD5(?), ?, ?, ?);";
+            "INSERT INTO user (email, password, first_name, last_name, phone) VALUES (?, ?, ?, ?, ?);";
 
     private static final String SQL_SELECT_USER_BY_ID =
             "SELECT user_id, email, password, first_name, last_name, phone, create_date, balance, loyalty_points, active, role_id FROM user WHERE user_id=?;";
@@ -32,6 +33,20 @@ public class UserDAO extends AbstractDAO<Integer, User> {
     private static final String SQL_SELECT_ALL_USERS =
             "SELECT user_id, email, password, first_name, last_name, phone, create_date, balance, loyalty_points, active, role_id  FROM user";
 
+    private static final String SQL_SELECT_USERS_PAGE =
+            "SELECT user_id, email, first_name, last_name, phone, balance, loyalty_points, active, role_id FROM user";
+
+    private static final String SQL_WHERE_EMAIL_PREFIX = " AND email LIKE ?";
+    private static final String SQL_WHERE_LAST_NAME_PREFIX = " AND last_name LIKE ?";
+    private static final String SQL_WHERE_ROLE = " AND role_id=?";
+    private static final String SQL_WHERE_ACTIVE = " AND active=?";
+    private static final String SQL_WHERE_AFTER_USER_ID = " AND user_id>?";
+    private static final String SQL_WHERE_AFTER_EMAIL = " AND email>?";
+    private static final String SQL_WHERE_AFTER_LAST_NAME = " AND (last_name>? OR (last_name=? AND user_id>?))";
+    private static final String SQL_ORDER_BY_USER_ID = " ORDER BY user_id LIMIT ?";
+    private static final String SQL_ORDER_BY_EMAIL = " ORDER BY email LIMIT ?";
+    private static final String SQL_ORDER_BY_LAST_NAME = " ORDER BY last_name, user_id LIMIT ?";
+
     private static final String SQL_SELECT_ALL_USER_ROLES =
             "SELECT role FROM user_role";
 
@@ -44,14 +59,11 @@ public class UserDAO extends AbstractDAO<Integer, User> {
     private static final String SQL_SELECT_USER_BY_LOGIN =
             "SELECT user_id, email, password, first_name, last_name, phone, create_date, balance, loyalty_points, active, role_id  FROM user WHERE email=?;";
 
-    private static final String SQL_SELECT_USER_BY_LOGIN_AND_PASS =
-            "SELECT user_id, email, password, first_name, last_name, phone, create_date, balance, loyalty_points, active, role_id  FROM user WHERE email=? AND password=MD5(?);";
-
     private static final String SQL_UPDATE_USER_BALANCE =
             "UPDATE user SET balance=? WHERE user_id=?;";
 
     private static final String SQL_UPDATE_USER_PASSWORD =
-            "UPDATE user SET password=MD5(?) WHERE user_id=?;";
+            "UPDATE user SET password=? WHERE user_id=?;";
 
     private static final String SQL_UPDATE_USER_NAMES =
             "UPDATE user SET first_name=?, last_name=? WHERE user_id=?;";
@@ -125,6 +137,29 @@ public class UserDAO extends AbstractDAO<Integer, User> {
         return user;
     }
 
+    /**
+     * Returns a user from {@code UserCache}, or gets the user from the table using id
+     * and puts it to the cache. The user may be up to the cache time to live old
+     * if the row was changed bypassing this application, so it mustn't be used to check balance or loyalty points.
+     *
+     * @param id a user id
+     * @return a {@code User}, or null if no user id is founded in the table
+     * @throws DAOException if a database access error occurs
+     */
+    public User findCachedUserById(int id) throws DAOException {
+
+        UserCache cache = UserCache.getInstance();
+        User user = cache.get(id);
+        if (user == null) {
+            long generation = cache.getGeneration();
+            user = findEntityById(id);
+            if (user != null) {
+                cache.put(user, generation);
+            }
+        }
+        return user;
+    }
+
     /**
      * Gets all rows from table 'user' and
      * returns them as a list of {@code User} objects
@@ -151,6 +186,83 @@ public class UserDAO extends AbstractDAO<Integer, User> {
         return users;
     }
 
+    /**
+     * Gets one page of rows from the table that match the search criteria,
+     * returns them as a list of {@code User} objects that contain only the fields shown in the users table.
+     * <p>
+     * Users found by email prefix are ordered by email, users found by last name prefix are ordered by last name
+     * and id, other users are ordered by id, so each page is read from the index of this column ('idx_email_UNIQUE',
+     * 'idx_second_name' or the primary key) using the last row of the previous page (keyset pagination)
+     * and doesn't depend on the amount of users before the page.
+     *
+     * @param search   search criteria
+     * @param afterId  an id of the last user of the previous page, or {@code null} for the first page
+     * @param afterKey an email or a last name of the last user of the previous page if users are searched by prefix,
+     *                 is ignored if afterId is {@code null}
+     * @param limit    the max amount of rows
+     * @return a list contains {@code User}, not null
+     * @throws DAOException if a database access error occurs
+     */
+    public List<User> findUsersPage(UserSearch search, Integer afterId, String afterKey, int limit) throws DAOException {
+
+        UserSearch.Field field = search.getField();
+        boolean hasCursor = afterId != null && (field == null || afterKey != null);
+        StringBuilder sql = new StringBuilder(SQL_SELECT_USERS_PAGE).append(" WHERE TRUE");
+        if (field == UserSearch.Field.EMAIL) {
+            sql.append(SQL_WHERE_EMAIL_PREFIX);
+        } else if (field == UserSearch.Field.LAST_NAME) {
+            sql.append(SQL_WHERE_LAST_NAME_PREFIX);
+        }
+        if (search.getRole() != null) {
+            sql.append(SQL_WHERE_ROLE);
+        }
+        if (search.getActive() != null) {
+            sql.append(SQL_WHERE_ACTIVE);
+        }
+        if (hasCursor) {
+            sql.append(field == null ? SQL_WHERE_AFTER_USER_ID :
+                    field == UserSearch.Field.EMAIL ? SQL_WHERE_AFTER_EMAIL : SQL_WHERE_AFTER_LAST_NAME);
+        }
+        sql.append(field == null ? SQL_ORDER_BY_USER_ID :
+                field == UserSearch.Field.EMAIL ? SQL_ORDER_BY_EMAIL : SQL_ORDER_BY_LAST_NAME);
+
+        List<User> users = new ArrayList<>();
+        try (ProxyConnection connection = ConnectionPool.getInstance().getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql.toString())) {
+            int index = 1;
+            if (field != null) {
+                preparedStatement.setString(index++, escapeLike(search.getPrefix()) + "%");
+            }
+            if (search.getRole() != null) {
+                preparedStatement.setInt(index++, search.getRole().getUserRoleId());
+            }
+            if (search.getActive() != null) {
+                preparedStatement.setBoolean(index++, search.getActive());
+            }
+            if (hasCursor) {
+                if (field == null) {
+                    preparedStatement.setInt(index++, afterId);
+                } else if (field == UserSearch.Field.EMAIL) {
+                    preparedStatement.setString(index++, afterKey);
+                } else {
+                    preparedStatement.setString(index++, afterKey);
+                    preparedStatement.setString(index++, afterKey);
+                    preparedStatement.setInt(index++, afterId);
+                }
+            }
+            preparedStatement.setInt(index, limit);
+            ResultSet rs = preparedStatement.executeQuery();
+            while (rs.next()) {
+                users.add(buildUserListItem(rs));
+            }
+        } catch (ConnectionException e) {
+            throw new DAOException(e);
+        } catch (SQLException e) {
+            throw new DAOException("SQL exception (query or table failed)", e);
+        }
+        return users;
+    }
+
     /**
      * Gets all rows from table 'user_role' and
      * returns them as a list of {@code String}
@@ -228,21 +340,20 @@ public class UserDAO extends AbstractDAO<Integer, User> {
     }
 
     /**
-     * Gets a row from the table using user login and password,
-     * builds and returns {@code User} object that represents this params
+     * Gets a row from the table using user login (unique email index),
+     * builds and returns {@code User} object that represents this login.
+     * The password hash is not checked, it should be verified by the caller.
      *
-     * @param login    a user login
-     * @param password a user password
-     * @return a {@code User}, or null if no row is founded in the table with this params
+     * @param login a user login
+     * @return a {@code User}, or null if no row is founded in the table with this login
      * @throws DAOException if a database access error occurs
      */
-    public User findUserByLoginAndPass(String login, String password) throws DAOException {
+    public User findUserByLogin(String login) throws DAOException {
 
         User user = null;
         try (ProxyConnection connection = ConnectionPool.getInstance().getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(SQL_SELECT_USER_BY_LOGIN_AND_PASS)) {
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_SELECT_USER_BY_LOGIN)) {
             preparedStatement.setString(1, login);
-            preparedStatement.setString(2, password);
             ResultSet rs = preparedStatement.executeQuery();
             if (rs.next()) {
                 user = buildUser(rs);
@@ -298,15 +409,17 @@ public class UserDAO extends AbstractDAO<Integer, User> {
             throw new DAOException(e);
         } catch (SQLException e) {
             throw new DAOException("SQL exception (query or table failed)", e);
+        } finally {
+            UserCache.getInstance().invalidate(userId);
         }
     }
 
     /**
      * Updates a row in the table using user id
-     * with new password value
+     * with new password hash value
      *
      * @param userId   a user id
-     * @param password a new password value
+     * @param password a new password hash value
      * @throws DAOException if {@code DaoException} occurs (database access error) or
      *                      if now rows where updated
      */
@@ -322,6 +435,8 @@ public class UserDAO extends AbstractDAO<Integer, User> {
             throw new DAOException(e);
         } catch (SQLException e) {
             throw new DAOException("SQL exception (query or table failed)", e);
+        } finally {
+            UserCache.getInstance().invalidate(userId);
         }
     }
 
@@ -348,6 +463,8 @@ public class UserDAO extends AbstractDAO<Integer, User> {
             throw new DAOException(e);
         } catch (SQLException e) {
             throw new DAOException("SQL exception (query or table failed)", e);
+        } finally {
+            UserCache.getInstance().invalidate(userId);
         }
     }
 
@@ -372,6 +489,8 @@ public class UserDAO extends AbstractDAO<Integer, User> {
             throw new DAOException(e);
         } catch (SQLException e) {
             throw new DAOException("SQL exception (query or table failed)", e);
+        } finally {
+            UserCache.getInstance().invalidate(userId);
         }
     }
 
@@ -397,6 +516,8 @@ public class UserDAO extends AbstractDAO<Integer, User> {
             throw new DAOException(e);
         } catch (SQLException e) {
             throw new DAOException("SQL exception (query or table failed)", e);
+        } finally {
+            UserCache.getInstance().invalidate(userId);
         }
     }
 
@@ -425,6 +546,8 @@ public class UserDAO extends AbstractDAO<Integer, User> {
             throw new DAOException(e);
         } catch (SQLException e) {
             throw new DAOException("SQL exception (query or table failed)", e);
+        } finally {
+            UserCache.getInstance().invalidate(userId);
         }
     }
 
@@ -453,4 +576,37 @@ public class UserDAO extends AbstractDAO<Integer, User> {
         return user;
     }
 
+    /**
+     * Creates a new {@code User} object and sets the values shown in the users list
+     * using {@code ResultSet} (password and create date are not selected).
+     *
+     * @param rs a {@code ResultSet} to build an object
+     * @return a {@code User}
+     */
+    private User buildUserListItem(ResultSet rs) throws SQLException {
+
+        User user = new User();
+        user.setUserId(rs.getInt("user_id"));
+        user.setEmail(rs.getString("email"));
+        user.setFirstName(rs.getString("first_name"));
+        user.setLastName(rs.getString("last_name"));
+        user.setPhone(rs.getString("phone"));
+        user.getAccount().setBalance(rs.getBigDecimal("balance"));
+        user.getAccount().setLoyaltyPoints(rs.getBigDecimal("loyalty_points"));
+        user.setActive(rs.getBoolean("active"));
+        user.setRole(rs.getInt("role_id"));
+
+        return user;
+    }
+
+    /**
+     * Escapes LIKE wildcards, so the value matches only itself.
+     *
+     * @param value a value to escape
+     * @return the escaped value
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
 }
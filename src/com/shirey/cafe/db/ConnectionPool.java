@@ -79,6 +79,24 @@ public class ConnectionPool {
         return instance;
     }
 
+    /**
+     * Gets the connection bound to the {@code UnitOfWork} of the current thread, if it is active
+     * and transactional, otherwise gets the connection from the pool.
+     *
+     * @return the {@code ProxyConnection} object.
+     * @throws ConnectionException if the time to wait for a connection exceeded or
+     *                             InterruptedException occurs
+     * @see UnitOfWork
+     */
+    public ProxyConnection getConnection() throws ConnectionException {
+
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        if (unitOfWork != null && unitOfWork.isTransactional()) {
+            return unitOfWork.getConnection(this);
+        }
+        return acquireConnection();
+    }
+
     /**
      * Gets the ProxyConnection object from the ArrayDeque
      * or new ProxyConnection if the ArrayDeque is empty and the amount of
@@ -88,29 +106,34 @@ public class ConnectionPool {
      * @throws ConnectionException if the time to wait for a connection exceeded or
      *                             InterruptedException occurs
      */
-    public ProxyConnection getConnection() throws ConnectionException {
+    ProxyConnection acquireConnection() throws ConnectionException {
 
+        ProxyConnection connection = null;
         poolLock.lock();
         try {
             while (connectionPool.isEmpty()) {
                 if (connectionsCreatedCount.get() != POOL_SIZE) {
-                    Connection connection = ConnectionCreator.createConnection();
+                    connection = new ProxyConnection(ConnectionCreator.createConnection());
                     connectionsCreatedCount.getAndIncrement();
-                    LOGGER.log(Level.TRACE, "connection was acquired from connection pool.");
-                    return new ProxyConnection(connection);
+                    break;
                 }
                 isFree.await(CONNECTION_TIMEOUT, TimeUnit.SECONDS);
                 if (connectionPool.isEmpty()) {
                     throw new ConnectionException("connection timeout exceeded... connection isn't available now, try later.");
                 }
             }
-            LOGGER.log(Level.TRACE, "connection was acquired from connection pool.");
-            return connectionPool.poll();
+            if (connection == null) {
+                connection = connectionPool.poll();
+            }
         } catch (InterruptedException e) {
             throw new ConnectionException("current thread was interrupted, can't get connection.", e);
         } finally {
             poolLock.unlock();
         }
+        if (LOGGER.isTraceEnabled()) {
+            LOGGER.log(Level.TRACE, "connection was acquired from connection pool.");
+        }
+        return connection;
     }
 
     /**
@@ -124,10 +147,12 @@ public class ConnectionPool {
         try {
             connectionPool.offer(connection);
             isFree.signal();
-            LOGGER.log(Level.TRACE, "connection was released to connection pool.");
         } finally {
             poolLock.unlock();
         }
+        if (LOGGER.isTraceEnabled()) {
+            LOGGER.log(Level.TRACE, "connection was released to connection pool.");
+        }
     }
 
     /**
@@ -9,6 +9,9 @@ import java.util.concurrent.Executor;
  * The {@code ProxyConnection} class
  * is an implementation of Connection interface
  * that overrides method close() and has own method closeConnection().
+ * <p>
+ * While the connection is bound to a transactional {@code UnitOfWork}, close() doesn't return it to the pool,
+ * setAutoCommit() and commit() are ignored and rollback() marks the unit of work as rollback only.
  * All other interface methods have no changes.
  *
  * @author Alex Shirey
@@ -18,6 +21,7 @@ import java.util.concurrent.Executor;
 public class ProxyConnection implements Connection {
 
     private Connection connection;
+    private UnitOfWork unitOfWork;
 
     ProxyConnection(Connection connection) {
         this.connection = connection;
@@ -26,11 +30,29 @@ public class ProxyConnection implements Connection {
 
     /**
      * Releases this connection to the connection poll
-     * instead of closing it.
+     * instead of closing it, if the connection isn't bound to a unit of work.
      */
     @Override
     public void close() throws SQLException {
-        ConnectionPool.getInstance().releaseConnection(this);
+        if (unitOfWork == null) {
+            ConnectionPool.getInstance().releaseConnection(this);
+        }
+    }
+
+    void bind(UnitOfWork unitOfWork) {
+        this.unitOfWork = unitOfWork;
+    }
+
+    void unbind() {
+        unitOfWork = null;
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    private boolean isInTransaction() {
+        return unitOfWork != null && unitOfWork.isTransactional();
     }
 
     /**
@@ -64,6 +86,9 @@ public class ProxyConnection implements Connection {
 
     @Override
     public void setAutoCommit(boolean autoCommit) throws SQLException {
+        if (isInTransaction()) {
+            return;
+        }
         connection.setAutoCommit(autoCommit);
     }
 
@@ -74,11 +99,18 @@ public class ProxyConnection implements Connection {
 
     @Override
     public void commit() throws SQLException {
+        if (isInTransaction()) {
+            return;
+        }
         connection.commit();
     }
 
     @Override
     public void rollback() throws SQLException {
+        if (isInTransaction()) {
+            unitOfWork.setRollbackOnly();
+            return;
+        }
         connection.rollback();
     }
 
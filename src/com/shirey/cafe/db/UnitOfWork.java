@@ -0,0 +1,230 @@
+package com.shirey.cafe.db;
+
+import com.shirey.cafe.exception.ConnectionException;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code UnitOfWork} class
+ * binds one pooled connection to the current thread, so all DAO calls made by one request
+ * (or by one {@code OrderAutoCancelDaemon} run) use the same connection in one transaction.
+ * <p>
+ * While a transactional unit of work is active, {@link ConnectionPool#getConnection()} returns the bound connection
+ * (it is taken from the pool on the first call only) and {@code close()} of this connection doesn't
+ * return it to the pool. The connection is returned when the unit of work is closed.
+ * A non-transactional unit of work doesn't bind a connection: each DAO call takes a connection from the pool
+ * and returns it as usual, so the request doesn't hold a connection while it does other work
+ * (for example, hashes a password).
+ * <p>
+ * A transactional unit of work runs all DAO calls in one transaction: DAO calls of
+ * {@code setAutoCommit} and {@code commit} are ignored, a DAO call of {@code rollback} marks
+ * the unit of work as rollback only. The transaction is committed by {@link #commit()},
+ * if the unit of work is closed without commit, the transaction is rolled back.
+ * <p>
+ * Usage:
+ * <pre>
+ * try (UnitOfWork unitOfWork = UnitOfWork.begin(true)) {
+ *     ... DAO calls ...
+ *     unitOfWork.commit();
+ * }
+ * </pre>
+ * Not thread safe, an object is used only by the thread that began it.
+ *
+ * @author Alex Shirey
+ */
+
+public class UnitOfWork implements AutoCloseable {
+
+    private static final Logger LOGGER = LogManager.getLogger(UnitOfWork.class);
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private final boolean transactional;
+    private ProxyConnection connection;
+    private boolean rollbackOnly;
+    private boolean completed;
+    private List<Runnable> afterCompletionActions;
+    private List<Runnable> afterCommitActions;
+
+    private UnitOfWork(boolean transactional) {
+        this.transactional = transactional;
+    }
+
+    /**
+     * Begins a new unit of work and binds it to the current thread.
+     *
+     * @param transactional {@code true} if all DAO calls should be made in one transaction
+     * @return a new {@code UnitOfWork} object
+     * @throws IllegalStateException if a unit of work is already active in the current thread
+     */
+    public static UnitOfWork begin(boolean transactional) {
+
+        if (CURRENT.get() != null) {
+            throw new IllegalStateException("unit of work is already active in the current thread.");
+        }
+        UnitOfWork unitOfWork = new UnitOfWork(transactional);
+        CURRENT.set(unitOfWork);
+        return unitOfWork;
+    }
+
+    /**
+     * @return a unit of work that is active in the current thread, or {@code null}
+     */
+    static UnitOfWork current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Gets the bound connection, the connection is taken from the pool on the first call.
+     * Is used only for transactional units of work.
+     *
+     * @return the bound connection
+     * @throws ConnectionException if the connection can't be taken or the transaction can't be started
+     */
+    ProxyConnection getConnection(ConnectionPool pool) throws ConnectionException {
+
+        if (connection == null) {
+            ProxyConnection proxyConnection = pool.acquireConnection();
+            if (transactional) {
+                try {
+                    proxyConnection.setAutoCommit(false);
+                } catch (SQLException e) {
+                    pool.releaseConnection(proxyConnection);
+                    throw new ConnectionException("can't start transaction.", e);
+                }
+            }
+            proxyConnection.bind(this);
+            connection = proxyConnection;
+        }
+        return connection;
+    }
+
+    /**
+     * Registers an action that should be run after the transaction of the current thread is completed
+     * (committed or rolled back), for example, to invalidate cached values once more after new values are visible.
+     *
+     * @param action an action to run, it shouldn't throw exceptions
+     * @return {@code true} if the action was registered, {@code false} if there is no active transactional
+     * unit of work in the current thread (the action is not run)
+     */
+    public static boolean afterCompletion(Runnable action) {
+
+        UnitOfWork unitOfWork = CURRENT.get();
+        if (unitOfWork == null || !unitOfWork.transactional) {
+            return false;
+        }
+        if (unitOfWork.afterCompletionActions == null) {
+            unitOfWork.afterCompletionActions = new ArrayList<>();
+        }
+        unitOfWork.afterCompletionActions.add(action);
+        return true;
+    }
+
+    /**
+     * Registers an action that should be run only if the transaction of the current thread is committed,
+     * for example, to count an event that must not be counted if the transaction is rolled back.
+     *
+     * @param action an action to run after the commit, it shouldn't throw exceptions
+     * @return {@code true} if the action was registered, {@code false} if there is no active transactional
+     * unit of work in the current thread (the action is not run)
+     */
+    public static boolean afterCommit(Runnable action) {
+
+        UnitOfWork unitOfWork = CURRENT.get();
+        if (unitOfWork == null || !unitOfWork.transactional) {
+            return false;
+        }
+        if (unitOfWork.afterCommitActions == null) {
+            unitOfWork.afterCommitActions = new ArrayList<>();
+        }
+        unitOfWork.afterCommitActions.add(action);
+        return true;
+    }
+
+    boolean isTransactional() {
+        return transactional;
+    }
+
+    /**
+     * Marks the unit of work so the only possible outcome of the transaction is rollback.
+     */
+    public void setRollbackOnly() {
+        rollbackOnly = true;
+    }
+
+    /**
+     * Commits the transaction (if the unit of work is transactional and isn't marked as rollback only,
+     * otherwise rolls it back). Does nothing if no connection was used.
+     *
+     * @throws ConnectionException if a database access error occurs
+     */
+    public void commit() throws ConnectionException {
+
+        completed = true;
+        if (connection == null || !transactional) {
+            return;
+        }
+        try {
+            if (rollbackOnly) {
+                connection.getConnection().rollback();
+            } else {
+                connection.getConnection().commit();
+            }
+        } catch (SQLException e) {
+            rollbackOnly = true;
+            throw new ConnectionException("transaction wasn't committed.", e);
+        }
+    }
+
+    /**
+     * Unbinds the unit of work from the current thread, rolls back the transaction if it wasn't committed,
+     * returns the connection to the pool and runs after commit actions (if the transaction was committed)
+     * and after completion actions. Errors are logged.
+     */
+    @Override
+    public void close() {
+
+        CURRENT.remove();
+        boolean committed = completed && !rollbackOnly;
+        try {
+            releaseConnection();
+        } finally {
+            if (afterCommitActions != null) {
+                if (committed) {
+                    afterCommitActions.forEach(Runnable::run);
+                }
+                afterCommitActions = null;
+            }
+            if (afterCompletionActions != null) {
+                afterCompletionActions.forEach(Runnable::run);
+                afterCompletionActions = null;
+            }
+        }
+    }
+
+    private void releaseConnection() {
+
+        if (connection == null) {
+            return;
+        }
+        connection.unbind();
+        try {
+            if (transactional) {
+                if (!completed || rollbackOnly) {
+                    connection.rollback();
+                }
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.ERROR, "transaction wasn't rolled back.", e);
+        } finally {
+            ConnectionPool.getInstance().releaseConnection(connection);
+            connection = null;
+        }
+    }
+
+}
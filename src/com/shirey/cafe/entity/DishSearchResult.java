@@ -0,0 +1,47 @@
+package com.shirey.cafe.entity;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The {@code DishSearchResult} class
+ * represents dishes of the menu found by a query and completions of the last word of the query.
+ * <p>
+ * Immutable.
+ *
+ * @author Alex Shirey
+ */
+
+public class DishSearchResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String query;
+    private final List<Dish> dishes;
+    private final List<String> completions;
+
+    /**
+     * @param query       a query
+     * @param dishes      found dishes ordered as in the menu
+     * @param completions words that complete the last word of the query
+     */
+    public DishSearchResult(String query, List<Dish> dishes, List<String> completions) {
+        this.query = query;
+        this.dishes = Collections.unmodifiableList(dishes);
+        this.completions = Collections.unmodifiableList(completions);
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public List<Dish> getDishes() {
+        return dishes;
+    }
+
+    public List<String> getCompletions() {
+        return completions;
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.shirey.cafe.entity;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code OrderHistory} class
+ * represents user's orders partitioned by order status.
+ * Each status has a bucket with one page of orders (newest first),
+ * the amount of all user's orders with this status and a cursor of the next page.
+ * <p>
+ * Immutable.
+ *
+ * @author Alex Shirey
+ */
+
+public class OrderHistory implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final Bucket EMPTY_BUCKET = new Bucket(Collections.emptyList(), 0, null, true);
+
+    private final Map<Order.Status, Bucket> buckets;
+
+    /**
+     * @param buckets buckets by order status, a missing status has an empty bucket
+     */
+    public OrderHistory(Map<Order.Status, Bucket> buckets) {
+        this.buckets = new EnumMap<>(Order.Status.class);
+        for (Order.Status status : Order.Status.values()) {
+            this.buckets.put(status, buckets.getOrDefault(status, EMPTY_BUCKET));
+        }
+    }
+
+    /**
+     * Returns a copy of this history with the new bucket of the given status.
+     *
+     * @param status an order status
+     * @param bucket a new bucket
+     * @return a new {@code OrderHistory} object
+     */
+    public OrderHistory withBucket(Order.Status status, Bucket bucket) {
+        Map<Order.Status, Bucket> copy = new EnumMap<>(buckets);
+        copy.put(status, bucket);
+        return new OrderHistory(copy);
+    }
+
+    public Bucket getBucket(Order.Status status) {
+        return buckets.get(status);
+    }
+
+    public Bucket getActive() {
+        return buckets.get(Order.Status.ACTIVE);
+    }
+
+    public Bucket getCancelled() {
+        return buckets.get(Order.Status.CANCELLED);
+    }
+
+    public Bucket getFinished() {
+        return buckets.get(Order.Status.FINISHED);
+    }
+
+    /**
+     * @return {@code true} if the user has no orders
+     */
+    public boolean isEmpty() {
+        for (Bucket bucket : buckets.values()) {
+            if (bucket.count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The {@code Bucket} class
+     * represents one page of orders with the same status.
+     */
+    public static class Bucket implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Order> orders;
+        private final int count;
+        private final Integer nextCursor;
+        private final boolean firstPage;
+
+        /**
+         * The orders are copied, so a view of another list (for example, a sub list) can be passed
+         * and the bucket stays serializable.
+         *
+         * @param orders     orders of the page, newest first
+         * @param count      the amount of all user's orders with this status
+         * @param nextCursor an id of the last order of the page if there are more orders, {@code null} otherwise
+         * @param firstPage  {@code true} if this is the first page
+         */
+        public Bucket(List<Order> orders, int count, Integer nextCursor, boolean firstPage) {
+            this.orders = Collections.unmodifiableList(new ArrayList<>(orders));
+            this.count = count;
+            this.nextCursor = nextCursor;
+            this.firstPage = firstPage;
+        }
+
+        public List<Order> getOrders() {
+            return orders;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public Integer getNextCursor() {
+            return nextCursor;
+        }
+
+        public boolean isFirstPage() {
+            return firstPage;
+        }
+    }
+
+}
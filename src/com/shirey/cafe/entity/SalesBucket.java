@@ -0,0 +1,152 @@
+package com.shirey.cafe.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The {@code SalesBucket} class
+ * represents sales counters of one bucket of one dimension (one day, one hour of a day, one dish or one payment type):
+ * amounts and sums of made and cancelled orders, the amount of finished orders and
+ * (for the dish dimension) the quantity of the dish in made orders.
+ * For the dish dimension sums are sums of the dish price multiplied by the dish quantity.
+ * <p>
+ * Immutable.
+ *
+ * @author Alex Shirey
+ */
+
+public class SalesBucket implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * A dimension of sales analytics, defines how orders are divided into buckets.
+     */
+    public enum Dimension {
+
+        /**
+         * A day when the order was made, bucket is 'yyyy-MM-dd'.
+         */
+        DAY,
+
+        /**
+         * An hour of the day when the order was made, bucket is '00' - '23'.
+         */
+        HOUR,
+
+        /**
+         * A dish of the order, bucket is the dish id.
+         */
+        DISH,
+
+        /**
+         * A payment type of the order, bucket is the payment type name.
+         */
+        PAYMENT_TYPE
+    }
+
+    private final Dimension dimension;
+    private final String bucket;
+    private final String label;
+    private final int ordersMade;
+    private final BigDecimal madeAmount;
+    private final int ordersCancelled;
+    private final BigDecimal cancelledAmount;
+    private final int ordersFinished;
+    private final int dishQuantity;
+
+    /**
+     * @param dimension       a dimension
+     * @param bucket          a bucket of the dimension
+     * @param label           a name of the bucket to show (a dish name), or {@code null} if the bucket is shown as is
+     * @param ordersMade      an amount of made orders
+     * @param madeAmount      a sum of made orders
+     * @param ordersCancelled an amount of cancelled orders
+     * @param cancelledAmount a sum of cancelled orders
+     * @param ordersFinished  an amount of finished orders
+     * @param dishQuantity    a quantity of the dish in made orders, 0 for other dimensions
+     */
+    public SalesBucket(Dimension dimension, String bucket, String label, int ordersMade, BigDecimal madeAmount,
+                       int ordersCancelled, BigDecimal cancelledAmount, int ordersFinished, int dishQuantity) {
+        this.dimension = dimension;
+        this.bucket = bucket;
+        this.label = label;
+        this.ordersMade = ordersMade;
+        this.madeAmount = madeAmount;
+        this.ordersCancelled = ordersCancelled;
+        this.cancelledAmount = cancelledAmount;
+        this.ordersFinished = ordersFinished;
+        this.dishQuantity = dishQuantity;
+    }
+
+    /**
+     * Returns a bucket with sums of counters of this and the other bucket of the same dimension and bucket.
+     *
+     * @param other a bucket to add
+     * @return a new {@code SalesBucket} object, the label is taken from this bucket if it is not {@code null}
+     */
+    public SalesBucket plus(SalesBucket other) {
+        return new SalesBucket(dimension, bucket, label != null ? label : other.label,
+                ordersMade + other.ordersMade, madeAmount.add(other.madeAmount),
+                ordersCancelled + other.ordersCancelled, cancelledAmount.add(other.cancelledAmount),
+                ordersFinished + other.ordersFinished, dishQuantity + other.dishQuantity);
+    }
+
+    public Dimension getDimension() {
+        return dimension;
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    /**
+     * @return a name of the bucket to show, the label or the bucket itself
+     */
+    public String getName() {
+        return label != null ? label : bucket;
+    }
+
+    public int getOrdersMade() {
+        return ordersMade;
+    }
+
+    public BigDecimal getMadeAmount() {
+        return madeAmount;
+    }
+
+    public int getOrdersCancelled() {
+        return ordersCancelled;
+    }
+
+    public BigDecimal getCancelledAmount() {
+        return cancelledAmount;
+    }
+
+    public int getOrdersFinished() {
+        return ordersFinished;
+    }
+
+    public int getDishQuantity() {
+        return dishQuantity;
+    }
+
+    /**
+     * @return a sum of made orders except cancelled ones
+     */
+    public BigDecimal getRevenue() {
+        return madeAmount.subtract(cancelledAmount);
+    }
+
+    /**
+     * @return a percent of cancelled orders among made orders with one decimal digit, 0 if no orders were made
+     */
+    public BigDecimal getCancellationPercent() {
+        if (ordersMade == 0) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(ordersCancelled * 100L).divide(BigDecimal.valueOf(ordersMade), 1, RoundingMode.HALF_UP);
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.shirey.cafe.entity;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The {@code UserPage} class
+ * represents one page of users found by {@code UserSearch} and a cursor of the next page.
+ * The cursor is the id and the sort key (email or last name if users are searched by it) of the last user of the page.
+ * <p>
+ * Users contain only the fields shown in the users table (no password and create date).
+ * Immutable.
+ *
+ * @author Alex Shirey
+ */
+
+public class UserPage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final UserSearch search;
+    private final List<User> users;
+    private final Integer nextAfterId;
+    private final String nextAfterKey;
+    private final boolean firstPage;
+
+    /**
+     * @param search       search criteria of the page
+     * @param users        users of the page
+     * @param nextAfterId  an id of the last user of the page if there are more users, {@code null} otherwise
+     * @param nextAfterKey a sort key of the last user of the page if there are more users and users are
+     *                     searched by prefix, {@code null} otherwise
+     * @param firstPage    {@code true} if this is the first page
+     */
+    public UserPage(UserSearch search, List<User> users, Integer nextAfterId, String nextAfterKey, boolean firstPage) {
+        this.search = search;
+        this.users = Collections.unmodifiableList(users);
+        this.nextAfterId = nextAfterId;
+        this.nextAfterKey = nextAfterKey;
+        this.firstPage = firstPage;
+    }
+
+    public UserSearch getSearch() {
+        return search;
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+
+    public Integer getNextAfterId() {
+        return nextAfterId;
+    }
+
+    public String getNextAfterKey() {
+        return nextAfterKey;
+    }
+
+    public boolean isFirstPage() {
+        return firstPage;
+    }
+
+}
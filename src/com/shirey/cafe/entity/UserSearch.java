@@ -0,0 +1,64 @@
+package com.shirey.cafe.entity;
+
+import java.io.Serializable;
+
+/**
+ * The {@code UserSearch} class
+ * represents admin user search criteria: a prefix of email or last name,
+ * a user role and an active status. Each criterion is optional.
+ * <p>
+ * Immutable.
+ *
+ * @author Alex Shirey
+ */
+
+public class UserSearch implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * A column searched by prefix, the column is indexed, so users are ordered by it.
+     */
+    public enum Field {
+        EMAIL, LAST_NAME
+    }
+
+    private final Field field;
+    private final String prefix;
+    private final UserRole role;
+    private final Boolean active;
+
+    /**
+     * @param field  a field searched by prefix, or {@code null} to find users of any email and last name
+     * @param prefix a prefix of the field value, is ignored if field is {@code null}, empty prefix means no search
+     * @param role   a user role, or {@code null} for any role
+     * @param active an active status, or {@code null} for any status
+     */
+    public UserSearch(Field field, String prefix, UserRole role, Boolean active) {
+        boolean hasPrefix = field != null && prefix != null && !prefix.isEmpty();
+        this.field = hasPrefix ? field : null;
+        this.prefix = hasPrefix ? prefix : null;
+        this.role = role;
+        this.active = active;
+    }
+
+    /**
+     * @return a field searched by prefix, or {@code null} if users are not searched by prefix
+     */
+    public Field getField() {
+        return field;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+}
@@ -16,4 +16,8 @@ public class UnsupportedCommandException extends Exception {
     public UnsupportedCommandException(Throwable cause) {
         super(cause);
     }
+
+    public UnsupportedCommandException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
@@ -0,0 +1,117 @@
+package com.shirey.cafe.filter;
+
+import com.shirey.cafe.command.CommandType;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@code AccessMatrix} class
+ * defines which roles have access to each command and to each jsp package.
+ * <p>
+ * The matrix is built once, when the class is loaded, checking access is a map lookup
+ * and a check of an {@code EnumSet}. Commands and packages that are not in the matrix
+ * are available for everyone (unsupported commands are handled by the controller).
+ * <p>
+ * This class has package-private access level, it is used only by the {@code AuthorizationFilter}.
+ *
+ * @author Alex Shirey
+ */
+
+class AccessMatrix {
+
+    /**
+     * Roles of a client, a guest is a client that is not logged in.
+     */
+    enum Role {
+        GUEST, CUSTOMER, ADMIN
+    }
+
+    private static final Set<Role> EVERYONE = EnumSet.allOf(Role.class);
+    private static final Set<Role> GUEST = EnumSet.of(Role.GUEST);
+    private static final Set<Role> USER = EnumSet.of(Role.CUSTOMER, Role.ADMIN);
+    private static final Set<Role> CUSTOMER = EnumSet.of(Role.CUSTOMER);
+    private static final Set<Role> ADMIN = EnumSet.of(Role.ADMIN);
+
+    /**
+     * Roles by values of the role session attribute.
+     */
+    private static final Map<String, Role> ROLES = new HashMap<>();
+
+    private static final Map<CommandType, Set<Role>> COMMANDS = new EnumMap<>(CommandType.class);
+
+    /**
+     * Roles by names of jsp packages (the first directory after /jsp/).
+     */
+    private static final Map<String, Set<Role>> PACKAGES = new HashMap<>();
+
+    static {
+        ROLES.put("customer", Role.CUSTOMER);
+        ROLES.put("admin", Role.ADMIN);
+
+        put(EVERYONE, CommandType.CHANGE_LOCALE, CommandType.CHANGE_DATE_FORMAT,
+                CommandType.SHOW_MENU, CommandType.SEARCH_DISHES, CommandType.SHOW_REVIEWS);
+        put(GUEST, CommandType.LOGIN, CommandType.REGISTER);
+        put(USER, CommandType.CHANGE_USER_NAMES, CommandType.CHANGE_USER_PASSWORD, CommandType.CHANGE_USER_PHONE,
+                CommandType.LOGOUT, CommandType.SHOW_ORDER_DETAILS, CommandType.CANCEL_ORDER, CommandType.FINISH_ORDER);
+        put(CUSTOMER, CommandType.ADD_MONEY, CommandType.ADD_DISH_TO_CART, CommandType.REMOVE_DISH_FROM_CART,
+                CommandType.SHOW_CART, CommandType.SHOW_PLACE_ORDER_PAGE, CommandType.CONFIRM_ORDER,
+                CommandType.SHOW_CUSTOMER_PAGE, CommandType.SHOW_LEAVE_FEEDBACK_PAGE, CommandType.LEAVE_FEEDBACK);
+        put(ADMIN, CommandType.SHOW_USERS, CommandType.SHOW_DISHES, CommandType.SHOW_ORDERS,
+                CommandType.SHOW_EDIT_USER_FORM, CommandType.SHOW_EDIT_DISH_FORM, CommandType.EDIT_USER,
+                CommandType.EDIT_DISH, CommandType.ADD_DISH, CommandType.REMOVE_REVIEW, CommandType.SHOW_SALES);
+
+        PACKAGES.put("guest", GUEST);
+        PACKAGES.put("user", USER);
+        PACKAGES.put("customer", CUSTOMER);
+        PACKAGES.put("admin", ADMIN);
+        PACKAGES.put("service", ADMIN);
+    }
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private AccessMatrix() {
+    }
+
+    /**
+     * Defines a role by the value of the role session attribute.
+     *
+     * @param attribute a value of the role session attribute, may be {@code null}
+     * @return a role, {@code Role.GUEST} if the value is {@code null} or unknown
+     */
+    static Role defineRole(Object attribute) {
+        Role role = attribute == null ? null : ROLES.get(attribute);
+        return role == null ? Role.GUEST : role;
+    }
+
+    /**
+     * @param role a role of the client
+     * @param type a type of the requested command
+     * @return {@code true} if the role has access to the command
+     */
+    static boolean isAllowed(Role role, CommandType type) {
+        Set<Role> roles = COMMANDS.get(type);
+        return roles == null || roles.contains(role);
+    }
+
+    /**
+     * @param role        a role of the client
+     * @param packageName a name of the requested jsp package, may be {@code null}
+     * @return {@code true} if the role has access to the package
+     */
+    static boolean isAllowed(Role role, String packageName) {
+        Set<Role> roles = packageName == null ? null : PACKAGES.get(packageName);
+        return roles == null || roles.contains(role);
+    }
+
+    private static void put(Set<Role> roles, CommandType... types) {
+        for (CommandType type : types) {
+            COMMANDS.put(type, roles);
+        }
+    }
+
+}
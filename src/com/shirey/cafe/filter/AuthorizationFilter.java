@@ -0,0 +1,106 @@
+package com.shirey.cafe.filter;
+
+import com.shirey.cafe.command.CommandFactory;
+import com.shirey.cafe.command.CommandType;
+import com.shirey.cafe.exception.UnsupportedCommandException;
+import com.shirey.cafe.manager.PageManager;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+
+/**
+ * The {@code AuthorizationFilter} class
+ * is an implementation of {@code Filter} interface.
+ * <p>
+ * Checks access of the client role to the requested command or jsp package using {@code AccessMatrix}.
+ * The role is read from the session once per request. If access is denied, the request is forwarded
+ * to the login page (client is not logged in), to the profile page (a logged in client requests guest pages)
+ * or to the index page, and the filter chain is not continued.
+ *
+ * @author Alex Shirey
+ * @see AccessMatrix
+ */
+
+@WebFilter(filterName = "AuthorizationFilter", urlPatterns = {"/controller", "/jsp/*"})
+public class AuthorizationFilter implements Filter {
+
+    private static final Logger LOGGER = LogManager.getLogger(AuthorizationFilter.class);
+    private static final String PAGE_INDEX = "page.index";
+    private static final String PAGE_LOGIN = "page.login";
+    private static final String PAGE_PROFILE = "page.profile";
+    private static final String PARAM_COMMAND = "command";
+    private static final String ATTR_ROLE = "role";
+    private static final String JSP_PATH = "/jsp/";
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+
+        HttpServletRequest httpServletRequest = (HttpServletRequest) request;
+        HttpSession session = httpServletRequest.getSession(false);
+        AccessMatrix.Role role = AccessMatrix.defineRole(session == null ? null : session.getAttribute(ATTR_ROLE));
+
+        String path = httpServletRequest.getServletPath();
+        if (isAllowed(role, path, request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.log(Level.DEBUG, "access denied, role: {}, path: {}, command: {}", role, path, request.getParameter(PARAM_COMMAND));
+        }
+        String page;
+        if (role == AccessMatrix.Role.GUEST) {
+            page = PAGE_LOGIN;
+        } else {
+            page = isAllowed(AccessMatrix.Role.GUEST, path, request) ? PAGE_PROFILE : PAGE_INDEX;
+        }
+        request.getServletContext().getRequestDispatcher(PageManager.getProperty(page)).forward(request, response);
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    /**
+     * Checks access to a jsp package by the path, or to a command by the command parameter
+     * (parameters are not read for jsp requests).
+     */
+    private static boolean isAllowed(AccessMatrix.Role role, String path, ServletRequest request) {
+
+        if (path.startsWith(JSP_PATH)) {
+            return AccessMatrix.isAllowed(role, definePackage(path));
+        }
+        CommandType type;
+        try {
+            type = CommandFactory.defineCommandType(request.getParameter(PARAM_COMMAND));
+        } catch (UnsupportedCommandException e) {
+            return true;
+        }
+        return AccessMatrix.isAllowed(role, type);
+    }
+
+    /**
+     * @param path a servlet path that starts with /jsp/
+     * @return a name of the jsp package (the first directory after /jsp/) or {@code null}
+     */
+    private static String definePackage(String path) {
+
+        int end = path.indexOf('/', JSP_PATH.length());
+        return end < 0 ? null : path.substring(JSP_PATH.length(), end);
+    }
+
+}
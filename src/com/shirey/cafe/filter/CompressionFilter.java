@@ -0,0 +1,118 @@
+package com.shirey.cafe.filter;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.annotation.WebInitParam;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * The {@code CompressionFilter} class
+ * is an implementation of {@code Filter} interface.
+ * <p>
+ * Compresses responses with gzip if the client accepts it (Accept-Encoding header).
+ * Responses not bigger than the threshold and not text content types (images, archives) are sent as is.
+ * The filter doesn't support async processing, so requests that it wraps can't use non-blocking output.
+ * Brotli is not supported by JDK, so it is not negotiated.
+ * The filter is mapped in web.xml, right after the {@code EncodingFilter}.
+ *
+ * @author Alex Shirey
+ * @see CompressionResponseWrapper
+ */
+
+@WebFilter(filterName = "CompressionFilter",
+        initParams = {@WebInitParam(name = "threshold", value = "1024"),
+                @WebInitParam(name = "level", value = "6"),
+                @WebInitParam(name = "poolSize", value = "32")})
+public class CompressionFilter implements Filter {
+
+    private int threshold;
+    private DeflaterPool deflaterPool;
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+
+        try {
+            threshold = Integer.parseInt(filterConfig.getInitParameter("threshold"));
+            int level = Integer.parseInt(filterConfig.getInitParameter("level"));
+            int poolSize = Integer.parseInt(filterConfig.getInitParameter("poolSize"));
+            deflaterPool = new DeflaterPool(level, poolSize);
+        } catch (IllegalArgumentException e) {
+            throw new ServletException("compression filter parameters are not valid.", e);
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+
+        HttpServletRequest httpServletRequest = (HttpServletRequest) request;
+        HttpServletResponse httpServletResponse = (HttpServletResponse) response;
+        if (!acceptsGzip(httpServletRequest.getHeader("Accept-Encoding"))) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        httpServletResponse.addHeader("Vary", "Accept-Encoding");
+        CompressionResponseWrapper wrapper = new CompressionResponseWrapper(httpServletResponse, deflaterPool, threshold);
+        try {
+            chain.doFilter(request, wrapper);
+            wrapper.finish();
+        } finally {
+            wrapper.release();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        deflaterPool.close();
+    }
+
+    /**
+     * Checks if the content type should be compressed (text, javascript, json, xml, svg).
+     *
+     * @param contentType a content type of the response, can be null
+     * @return {@code true} if the content type is compressible, {@code false} otherwise
+     */
+    static boolean isCompressibleType(String contentType) {
+
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase();
+        return type.startsWith("text/") || type.contains("javascript") || type.contains("json")
+                || type.contains("xml") || type.contains("svg");
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if ("gzip".equalsIgnoreCase(name) || "*".equals(name)) {
+                return parts.length == 1 || !isZeroQuality(parts[1].trim());
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String parameter) {
+
+        if (!parameter.startsWith("q=")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(parameter.substring(2)) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
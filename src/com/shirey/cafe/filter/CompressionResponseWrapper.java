@@ -0,0 +1,361 @@
+package com.shirey.cafe.filter;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * The {@code CompressionResponseWrapper} class
+ * is a response wrapper that compresses the response body with gzip while it is written.
+ * <p>
+ * The first bytes of the body (up to the threshold) are buffered. If the body is not bigger than the threshold,
+ * it is sent as is. Otherwise, if the content type is compressible and the response is not encoded yet,
+ * the body is compressed by a pooled {@code Deflater} and streamed to the client, the whole page is not buffered.
+ * Partial content responses (206, Content-Range header) are not compressed.
+ * <p>
+ * When it is decided whether to compress the body, the response can't be reset any more (as a committed response),
+ * because the beginning of the body and headers are already sent to the container.
+ * Non-blocking output is not supported: the {@code CompressionFilter} doesn't support async processing,
+ * so a write listener can't be set (as for any response of a request that is not in async mode).
+ * <p>
+ * This class has package-private access level, it is used only by the {@code CompressionFilter}.
+ *
+ * @author Alex Shirey
+ */
+
+class CompressionResponseWrapper extends HttpServletResponseWrapper {
+
+    private static final String CONTENT_LENGTH = "Content-Length";
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+    private static final String CONTENT_RANGE = "Content-Range";
+
+    private final CompressingOutputStream stream;
+    private PrintWriter writer;
+    private boolean streamUsed;
+
+    CompressionResponseWrapper(HttpServletResponse response, DeflaterPool deflaterPool, int threshold) {
+        super(response);
+        this.stream = new CompressingOutputStream(response, deflaterPool, threshold);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called for this response");
+        }
+        streamUsed = true;
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+
+        if (streamUsed) {
+            throw new IllegalStateException("getOutputStream() has already been called for this response");
+        }
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(stream, getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    /**
+     * The length of the body is not known before compression, so it is set (if possible) when the body is sent.
+     */
+    @Override
+    public void setContentLength(int len) {
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (!CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (!CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (!CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            super.setIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        if (!CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            super.addIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+
+        if (writer != null) {
+            writer.flush();
+        }
+        stream.flush();
+        if (stream.isDecided()) {
+            super.flushBuffer();
+        }
+    }
+
+    /**
+     * The response is reported as committed when it is decided whether to compress the body,
+     * so callers that check it (like a JSP error page forward) don't try to reset the response.
+     */
+    @Override
+    public boolean isCommitted() {
+        return stream.isDecided() || super.isCommitted();
+    }
+
+    /**
+     * @throws IllegalStateException if it is already decided whether to compress the body
+     */
+    @Override
+    public void reset() {
+        checkNotDecided();
+        super.reset();
+        stream.resetBuffer();
+    }
+
+    /**
+     * @throws IllegalStateException if it is already decided whether to compress the body
+     */
+    @Override
+    public void resetBuffer() {
+        checkNotDecided();
+        super.resetBuffer();
+        stream.resetBuffer();
+    }
+
+    private void checkNotDecided() {
+        if (stream.isDecided()) {
+            throw new IllegalStateException("response body is already being sent, it can't be reset");
+        }
+    }
+
+    /**
+     * Sends the buffered or compressed rest of the body, if the body was written.
+     * Should be called after the request is processed.
+     *
+     * @throws IOException if an input or output error occurs
+     */
+    void finish() throws IOException {
+
+        if (writer != null) {
+            writer.close();
+        } else if (streamUsed) {
+            stream.close();
+        }
+    }
+
+    /**
+     * Returns the deflater to the pool if the body was not finished (in case of an exception).
+     */
+    void release() {
+        stream.releaseDeflater();
+    }
+
+    private static class CompressingOutputStream extends ServletOutputStream {
+
+        private static final int GZIP_MAGIC = 0x8b1f;
+        private static final int BUFFER_SIZE = 8192;
+
+        private final HttpServletResponse response;
+        private final DeflaterPool deflaterPool;
+        private final byte[] buffer;
+        private int count;
+        private boolean decided;
+        private boolean closed;
+        private OutputStream out;
+        private Deflater deflater;
+        private CRC32 crc;
+        private byte[] deflateBuffer;
+
+        private CompressingOutputStream(HttpServletResponse response, DeflaterPool deflaterPool, int threshold) {
+            this.response = response;
+            this.deflaterPool = deflaterPool;
+            this.buffer = new byte[threshold];
+        }
+
+        private boolean isDecided() {
+            return decided;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+
+            if (closed) {
+                throw new IOException("stream is closed");
+            }
+            if (!decided) {
+                if (count + len <= buffer.length) {
+                    System.arraycopy(b, off, buffer, count, len);
+                    count += len;
+                    return;
+                }
+                decide(true);
+                writeOut(buffer, 0, count);
+                count = 0;
+            }
+            writeOut(b, off, len);
+        }
+
+        /**
+         * Flushes compressed data. If it is not known yet, whether to compress the body,
+         * the data stays in the buffer.
+         */
+        @Override
+        public void flush() throws IOException {
+
+            if (!decided || closed) {
+                return;
+            }
+            if (deflater != null) {
+                deflate(Deflater.SYNC_FLUSH);
+            }
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (!decided) {
+                decide(false);
+                if (!response.isCommitted()) {
+                    response.setContentLength(count);
+                }
+                out.write(buffer, 0, count);
+            } else if (deflater != null) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    deflate(Deflater.NO_FLUSH);
+                }
+                writeTrailer();
+                releaseDeflater();
+            }
+            out.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new IllegalStateException("the request is not in async mode, non-blocking output is not supported");
+        }
+
+        private void resetBuffer() {
+            count = 0;
+        }
+
+        private void releaseDeflater() {
+            if (deflater != null) {
+                deflaterPool.release(deflater);
+                deflater = null;
+            }
+        }
+
+        private void decide(boolean bigEnough) throws IOException {
+
+            decided = true;
+            if (bigEnough && isCompressible()) {
+                response.setHeader(CONTENT_ENCODING, "gzip");
+                deflater = deflaterPool.borrow();
+                crc = new CRC32();
+                deflateBuffer = new byte[BUFFER_SIZE];
+                out = response.getOutputStream();
+                writeHeader();
+            } else {
+                out = response.getOutputStream();
+            }
+        }
+
+        private boolean isCompressible() {
+
+            if (response.isCommitted() || response.containsHeader(CONTENT_ENCODING)) {
+                return false;
+            }
+            int status = response.getStatus();
+            if (status == HttpServletResponse.SC_NO_CONTENT || status == HttpServletResponse.SC_NOT_MODIFIED
+                    || status == HttpServletResponse.SC_PARTIAL_CONTENT || response.containsHeader(CONTENT_RANGE)) {
+                return false;
+            }
+            return CompressionFilter.isCompressibleType(response.getContentType());
+        }
+
+        private void writeOut(byte[] b, int off, int len) throws IOException {
+
+            if (deflater == null) {
+                out.write(b, off, len);
+                return;
+            }
+            crc.update(b, off, len);
+            deflater.setInput(b, off, len);
+            while (!deflater.needsInput()) {
+                deflate(Deflater.NO_FLUSH);
+            }
+        }
+
+        private void deflate(int flush) throws IOException {
+
+            int length;
+            do {
+                length = deflater.deflate(deflateBuffer, 0, deflateBuffer.length, flush);
+                if (length > 0) {
+                    out.write(deflateBuffer, 0, length);
+                }
+            } while (length == deflateBuffer.length);
+        }
+
+        private void writeHeader() throws IOException {
+            out.write(new byte[]{(byte) GZIP_MAGIC, (byte) (GZIP_MAGIC >> 8), Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff});
+        }
+
+        private void writeTrailer() throws IOException {
+
+            byte[] trailer = new byte[8];
+            writeInt((int) crc.getValue(), trailer, 0);
+            writeInt(deflater.getTotalIn(), trailer, 4);
+            out.write(trailer);
+        }
+
+        private static void writeInt(int value, byte[] b, int offset) {
+            b[offset] = (byte) value;
+            b[offset + 1] = (byte) (value >> 8);
+            b[offset + 2] = (byte) (value >> 16);
+            b[offset + 3] = (byte) (value >> 24);
+        }
+    }
+
+}
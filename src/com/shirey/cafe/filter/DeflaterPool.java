@@ -0,0 +1,56 @@
+package com.shirey.cafe.filter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * The {@code DeflaterPool} class
+ * is a bounded pool of {@code Deflater} objects (raw deflate, without zlib header).
+ * <p>
+ * Creating a deflater allocates native memory, so deflaters are reused between responses.
+ * If the pool is empty, a new deflater is created, if the pool is full, the returned deflater is ended.
+ * <p>
+ * This class has package-private access level, it is used only by filters.
+ * Thread safe.
+ *
+ * @author Alex Shirey
+ */
+
+class DeflaterPool {
+
+    private final int level;
+    private final BlockingQueue<Deflater> deflaters;
+
+    /**
+     * @param level    a compression level (0-9)
+     * @param capacity the max amount of deflaters in the pool
+     */
+    DeflaterPool(int level, int capacity) {
+        this.level = level;
+        this.deflaters = new ArrayBlockingQueue<>(capacity);
+    }
+
+    Deflater borrow() {
+
+        Deflater deflater = deflaters.poll();
+        return deflater != null ? deflater : new Deflater(level, true);
+    }
+
+    void release(Deflater deflater) {
+
+        deflater.reset();
+        if (!deflaters.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    void close() {
+
+        Deflater deflater;
+        while ((deflater = deflaters.poll()) != null) {
+            deflater.end();
+        }
+    }
+
+}
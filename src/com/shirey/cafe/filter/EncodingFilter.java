@@ -19,7 +19,7 @@ import java.io.IOException;
  * @author Alex Shirey
  */
 
-@WebFilter(urlPatterns = "/*",
+@WebFilter(filterName = "EncodingFilter", urlPatterns = "/*",
         initParams = {@WebInitParam(name = "encoding", value = "UTF-8")})
 public class EncodingFilter implements Filter {
 
@@ -0,0 +1,93 @@
+package com.shirey.cafe.filter;
+
+import com.shirey.cafe.manager.ApplicationManager;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code LoginRateLimitFilter} class
+ * is an implementation of {@code Filter} interface.
+ * <p>
+ * Limits login and register commands by client ip and by login (sliding window),
+ * requests over the limits get 429 error before the command is executed,
+ * so they don't use database connections. Limits are set in the application properties file.
+ *
+ * @author Alex Shirey
+ * @see SlidingWindowRateLimiter
+ */
+
+@WebFilter(filterName = "LoginRateLimitFilter", urlPatterns = "/controller")
+public class LoginRateLimitFilter implements Filter {
+
+    private static final Logger LOGGER = LogManager.getLogger(LoginRateLimitFilter.class);
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+    private static final String COMMAND_LOGIN = "login";
+    private static final String COMMAND_REGISTER = "register";
+    private static final String PARAM_COMMAND = "command";
+    private static final String PARAM_LOGIN = "login";
+
+    private SlidingWindowRateLimiter ipLimiter;
+    private SlidingWindowRateLimiter loginLimiter;
+    private String retryAfter;
+
+    /**
+     * Creates limiters using values from the properties file.
+     *
+     * @throws ServletException if a value in the properties file is not a positive number
+     */
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+
+        try {
+            long window = Long.parseLong(ApplicationManager.getProperty("app.rateLimit.windowInSeconds"));
+            int maxKeys = Integer.parseInt(ApplicationManager.getProperty("app.rateLimit.maxKeys"));
+            int ipLimit = Integer.parseInt(ApplicationManager.getProperty("app.rateLimit.requestsPerIp"));
+            int loginLimit = Integer.parseInt(ApplicationManager.getProperty("app.rateLimit.requestsPerLogin"));
+            ipLimiter = new SlidingWindowRateLimiter(ipLimit, TimeUnit.SECONDS.toMillis(window), maxKeys);
+            loginLimiter = new SlidingWindowRateLimiter(loginLimit, TimeUnit.SECONDS.toMillis(window), maxKeys);
+            retryAfter = String.valueOf(window);
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.ERROR, "rate limits are not valid, check application resources.configuration file.", e);
+            throw new ServletException("rate limits are not valid, check application resources.configuration file.", e);
+        }
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+
+        String command = request.getParameter(PARAM_COMMAND);
+        if (COMMAND_LOGIN.equalsIgnoreCase(command) || COMMAND_REGISTER.equalsIgnoreCase(command)) {
+            String login = request.getParameter(PARAM_LOGIN);
+            boolean allowed = ipLimiter.tryAcquire(request.getRemoteAddr())
+                    && (login == null || loginLimiter.tryAcquire(login.toLowerCase()));
+            if (!allowed) {
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.log(Level.DEBUG, "{} rejected, rate limit is reached, ip: {}", command, request.getRemoteAddr());
+                }
+                HttpServletResponse httpServletResponse = (HttpServletResponse) response;
+                httpServletResponse.setHeader("Retry-After", retryAfter);
+                httpServletResponse.sendError(SC_TOO_MANY_REQUESTS);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    @Override
+    public void destroy() {
+        ipLimiter = null;
+        loginLimiter = null;
+    }
+}
@@ -0,0 +1,130 @@
+package com.shirey.cafe.filter;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code SlidingWindowRateLimiter} class
+ * limits the amount of requests per key (client ip, login) in a sliding window.
+ * <p>
+ * The window is approximated with two fixed windows: the amount of requests in the previous window
+ * is weighted by the part of it that is still inside the sliding window. The state of a key
+ * (window index, previous and current counts) is packed into one {@code long} and changed with CAS,
+ * so no locks are used.
+ * <p>
+ * The map of keys is bounded. Keys are queued in the order they are added, and when a new key makes the map
+ * bigger than the max amount of keys, one key is evicted: a few oldest keys are checked, the first key
+ * that was not used in the last two windows is removed, keys that are still used are moved to the end of the queue,
+ * and if all checked keys are used, the last checked one is removed. So the eviction takes constant time
+ * and new keys are always limited. An evicted key that is still used starts counting again, refusing or
+ * not limiting new keys instead would let a client with many keys (ips, logins) lock out or unlock all new keys.
+ * <p>
+ * This class has package-private access level, it is used only by filters.
+ * Thread safe.
+ *
+ * @author Alex Shirey
+ */
+
+class SlidingWindowRateLimiter {
+
+    private static final long COUNT_MASK = 0xFFFF;
+    private static final int COUNT_BITS = 16;
+    private static final int INDEX_SHIFT = 32;
+    private static final int EVICTION_STEPS = 8;
+
+    private final int limit;
+    private final long windowMillis;
+    private final int maxKeys;
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final Queue<String> keys = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param limit         the max amount of requests of one key in the window
+     * @param windowMillis  the window length in milliseconds
+     * @param maxKeys       the max amount of keys that are tracked
+     * @throws IllegalArgumentException if any of the values is less than 1 or limit is too big
+     */
+    SlidingWindowRateLimiter(int limit, long windowMillis, int maxKeys) {
+        if (limit < 1 || limit >= COUNT_MASK || windowMillis < 1 || maxKeys < 1) {
+            throw new IllegalArgumentException("rate limiter parameters are not valid.");
+        }
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Counts a request of the key, if the limit is not reached.
+     *
+     * @param key a key (not null)
+     * @return {@code true} if the request is allowed, {@code false} if the limit is reached
+     */
+    boolean tryAcquire(String key) {
+        return tryAcquire(key, System.currentTimeMillis());
+    }
+
+    boolean tryAcquire(String key, long now) {
+
+        AtomicLong counter = counters.get(key);
+        if (counter == null) {
+            AtomicLong newCounter = new AtomicLong((now / windowMillis) << INDEX_SHIFT);
+            counter = counters.putIfAbsent(key, newCounter);
+            if (counter == null) {
+                counter = newCounter;
+                keys.offer(key);
+                if (counters.size() > maxKeys) {
+                    evictOne(now);
+                }
+            }
+        }
+
+        long windowIndex = now / windowMillis;
+        double previousWeight = 1.0 - (double) (now % windowMillis) / windowMillis;
+        while (true) {
+            long state = counter.get();
+            long index = state >>> INDEX_SHIFT;
+            long previous = (state >>> COUNT_BITS) & COUNT_MASK;
+            long current = state & COUNT_MASK;
+            if (index != windowIndex) {
+                previous = index == windowIndex - 1 ? current : 0;
+                current = 0;
+            }
+            if (previous * previousWeight + current >= limit) {
+                return false;
+            }
+            long newState = (windowIndex << INDEX_SHIFT) | (previous << COUNT_BITS) | (current + 1);
+            if (counter.compareAndSet(state, newState)) {
+                return true;
+            }
+        }
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    /**
+     * Removes the first expired key among the oldest keys, or the oldest used key if no expired key is found.
+     */
+    private void evictOne(long now) {
+
+        long windowIndex = now / windowMillis;
+        for (int step = 1; step <= EVICTION_STEPS; step++) {
+            String key = keys.poll();
+            if (key == null) {
+                return;
+            }
+            AtomicLong counter = counters.get(key);
+            boolean expired = counter == null || (counter.get() >>> INDEX_SHIFT) < windowIndex - 1;
+            if (expired || step == EVICTION_STEPS) {
+                counters.remove(key);
+                return;
+            }
+            keys.offer(key);
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.shirey.cafe.filter;
+
+import com.shirey.cafe.util.AssetFingerprint;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * The {@code StaticResourceCacheFilter} class
+ * is an implementation of {@code Filter} interface.
+ * <p>
+ * Sets Cache-Control header to static resources (css, js, images):
+ * if the url contains the current fingerprint of the resource, the resource is cached for a year
+ * without revalidation, otherwise browsers should revalidate it.
+ * The filter is mapped in web.xml (css, js and img folders).
+ *
+ * @author Alex Shirey
+ * @see AssetFingerprint
+ */
+
+@WebFilter(filterName = "StaticResourceCacheFilter")
+public class StaticResourceCacheFilter implements Filter {
+
+    private static final String CACHE_IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String CACHE_REVALIDATE = "no-cache";
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+
+        HttpServletRequest httpServletRequest = (HttpServletRequest) request;
+        HttpServletResponse httpServletResponse = (HttpServletResponse) response;
+        String version = httpServletRequest.getParameter(AssetFingerprint.VERSION_PARAMETER);
+        String path = httpServletRequest.getServletPath() + (httpServletRequest.getPathInfo() != null ? httpServletRequest.getPathInfo() : "");
+
+        if (version != null && !version.isEmpty() && version.equals(AssetFingerprint.getFingerprint(request.getServletContext(), path))) {
+            httpServletResponse.setHeader("Cache-Control", CACHE_IMMUTABLE);
+        } else {
+            httpServletResponse.setHeader("Cache-Control", CACHE_REVALIDATE);
+        }
+        chain.doFilter(request, response);
+    }
+
+    @Override
+    public void destroy() {
+
+    }
+}
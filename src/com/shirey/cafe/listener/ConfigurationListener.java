@@ -0,0 +1,30 @@
+package com.shirey.cafe.listener;
+
+import com.shirey.cafe.manager.ConfigurationWatcher;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * The {@code ConfigurationListener} class
+ * is a context listener that starts watching configuration files
+ * when the application starts and stops it when the application is destroyed.
+ *
+ * @author Alex Shirey
+ */
+
+@WebListener
+public class ConfigurationListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        ConfigurationWatcher.start();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        ConfigurationWatcher.stop();
+    }
+
+}
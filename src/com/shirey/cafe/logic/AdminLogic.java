@@ -6,8 +6,12 @@ import com.shirey.cafe.dao.UserDAO;
 import com.shirey.cafe.entity.*;
 import com.shirey.cafe.exception.DAOException;
 import com.shirey.cafe.exception.LogicException;
+import com.shirey.cafe.manager.ApplicationManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -19,23 +23,71 @@ import java.util.List;
 
 public class AdminLogic {
 
+    private static final int USERS_PAGE_SIZE = Integer.parseInt(ApplicationManager.getProperty("app.usersPageSize"));
+    private static final int SALES_REPORT_DAYS = Integer.parseInt(ApplicationManager.getProperty("app.salesReportDays"));
+
     private UserDAO userDAO = new UserDAO();
     private DishDAO dishDAO = new DishDAO();
     private OrderDAO orderDAO = new OrderDAO();
 
     /**
-     * Gets all users from a database.
+     * Gets one page of users that match the search criteria from a database.
+     * The page contains at most app.usersPageSize users, users contain only the fields shown in the users table.
      *
-     * @return a list contains {@code User}, not null
+     * @param search   search criteria
+     * @param afterId  an id of the last user of the previous page, or {@code null} for the first page
+     * @param afterKey a sort key of the last user of the previous page ({@link UserPage#getNextAfterKey()})
+     * @return a {@code UserPage} object
      * @throws LogicException if {@code DaoException} occurs (database access error)
      */
-    public List<User> findAllUsers() throws LogicException {
+    public UserPage findUsersPage(UserSearch search, Integer afterId, String afterKey) throws LogicException {
 
+        List<User> users;
         try {
-            return userDAO.findAll();
+            users = userDAO.findUsersPage(search, afterId, afterKey, USERS_PAGE_SIZE + 1);
         } catch (DAOException e) {
             throw new LogicException(e);
         }
+        Integer nextAfterId = null;
+        String nextAfterKey = null;
+        if (users.size() > USERS_PAGE_SIZE) {
+            users = new ArrayList<>(users.subList(0, USERS_PAGE_SIZE));
+            User last = users.get(USERS_PAGE_SIZE - 1);
+            nextAfterId = last.getUserId();
+            if (search.getField() == UserSearch.Field.EMAIL) {
+                nextAfterKey = last.getEmail();
+            } else if (search.getField() == UserSearch.Field.LAST_NAME) {
+                nextAfterKey = last.getLastName();
+            }
+        }
+        return new UserPage(search, users, nextAfterId, nextAfterKey, afterId == null);
+    }
+
+    /**
+     * Gets sales of the dimension from pre-aggregated counters ({@code SalesAnalytics}).
+     * Days are limited by the last app.salesReportDays days and ordered from the newest one,
+     * hours are ordered from the first one, dishes and payment types are ordered by revenue (the biggest first).
+     *
+     * @param dimension a dimension
+     * @return a list contains {@code SalesBucket}, not null
+     * @throws LogicException if {@code DaoException} occurs (database access error)
+     */
+    public List<SalesBucket> findSales(SalesBucket.Dimension dimension) throws LogicException {
+
+        String fromBucket = dimension == SalesBucket.Dimension.DAY ?
+                LocalDate.now().minusDays(SALES_REPORT_DAYS - 1).toString() : "";
+        List<SalesBucket> sales = SalesAnalytics.getInstance().findSales(dimension, fromBucket);
+        switch (dimension) {
+            case DAY:
+                sales.sort(Comparator.comparing(SalesBucket::getBucket).reversed());
+                break;
+            case HOUR:
+                sales.sort(Comparator.comparing(SalesBucket::getBucket));
+                break;
+            default:
+                sales.sort(Comparator.comparing(SalesBucket::getRevenue).reversed());
+        }
+        return sales;
     }
 
     /**
@@ -121,6 +173,7 @@ public class AdminLogic {
         userToEdit.getAccount().setLoyaltyPoints(loyaltyPoints);
         userToEdit.setActive(active);
         userToEdit.setRole(roleId);
+        ContentVersion.REVIEWS.increment();
     }
 
     /**
@@ -145,6 +198,8 @@ public class AdminLogic {
         dishToEdit.setDescription(description);
         dishToEdit.setPrice(price);
         dishToEdit.setInMenu(inMenu);
+        DishSearchIndex.getInstance().put(dishToEdit);
+        ContentVersion.MENU.increment();
     }
 
     /**
@@ -165,6 +220,8 @@ public class AdminLogic {
         Dish dish = new Dish(type, name, description, price, inMenu);
         try {
             dishDAO.create(dish);
+            DishSearchIndex.getInstance().put(dish);
+            ContentVersion.MENU.increment();
             return dishDAO.findEntityById(dish.getDishId());
         } catch (DAOException e) {
             throw new LogicException(e);
@@ -188,21 +245,22 @@ public class AdminLogic {
     }
 
     /**
-     * Updates a database with null values of order rating and review,
-     * sets this values to the {@code Order} object after the update
+     * Updates a database with null values of order rating and review.
+     * Cached order histories are cleared, the owner of the order is unknown here and
+     * removing reviews is rare.
      *
-     * @param order a {@code Order} object which rating and review should be removed (set to null)
+     * @param orderId an id of the order which rating and review should be removed (set to null)
      * @throws LogicException if {@code DaoException} occurs (database access error)
      */
-    public void removeReview(Order order) throws LogicException {
+    public void removeReview(int orderId) throws LogicException {
 
         try {
-            orderDAO.updateOrderReview(order.getOrderId(), null, null);
+            orderDAO.updateOrderReview(orderId, null, null);
         } catch (DAOException e) {
             throw new LogicException(e);
         }
-        order.setRating(0);
-        order.setReview(null);
+        OrderHistoryCache.getInstance().clear();
+        ContentVersion.REVIEWS.increment();
     }
 
 }
@@ -0,0 +1,30 @@
+package com.shirey.cafe.logic;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code ContentVersion} enum
+ * contains versions of the content that is shown to all users and changes rarely -
+ * the menu and the reviews.
+ * <p>
+ * A version is increased by logic classes after every change of the content in the database,
+ * so commands can find out, if the page that was sent to the client earlier is still up to date.
+ * Initial values are the time of the application start, so versions are not repeated after restart.
+ *
+ * @author Alex Shirey
+ */
+
+public enum ContentVersion {
+
+    MENU, REVIEWS;
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long get() {
+        return version.get();
+    }
+
+    void increment() {
+        version.incrementAndGet();
+    }
+}
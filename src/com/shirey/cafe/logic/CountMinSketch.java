@@ -0,0 +1,75 @@
+package com.shirey.cafe.logic;
+
+import java.util.Arrays;
+
+/**
+ * The {@code CountMinSketch} class
+ * is a fixed-size table of counters that estimates how many times each item was added.
+ * Each item is counted in one counter of each row (the column is defined by the row hash function),
+ * the estimate is the minimum of these counters, so it is never less than the real count
+ * and is greater only if items collide in all rows.
+ * <p>
+ * This class has package-private access level, it is used only by logic classes.
+ * Not thread safe.
+ *
+ * @author Alex Shirey
+ */
+
+class CountMinSketch {
+
+    private final int width;
+    private final int[][] counters;
+
+    /**
+     * @param depth the amount of rows (hash functions)
+     * @param width the amount of counters in a row
+     * @throws IllegalArgumentException if depth or width is less than 1
+     */
+    CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("depth and width can't be less than 1");
+        }
+        this.width = width;
+        counters = new int[depth][width];
+    }
+
+    /**
+     * @param item  an item
+     * @param count a count to add
+     */
+    void add(int item, int count) {
+        for (int row = 0; row < counters.length; row++) {
+            counters[row][column(item, row)] += count;
+        }
+    }
+
+    /**
+     * @param item an item
+     * @return an estimated count of the item, not less than the real count
+     */
+    int estimate(int item) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            estimate = Math.min(estimate, counters[row][column(item, row)]);
+        }
+        return estimate;
+    }
+
+    void clear() {
+        for (int[] row : counters) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    /**
+     * Defines the column of the item in the row, each row uses its own seed of the hash function.
+     */
+    private int column(int item, int row) {
+        int hash = item * 0x9E3779B9 + row * 0x85EBCA6B;
+        hash ^= hash >>> 16;
+        hash *= 0x7FEB352D;
+        hash ^= hash >>> 15;
+        return (hash & Integer.MAX_VALUE) % width;
+    }
+
+}
@@ -2,6 +2,7 @@ package com.shirey.cafe.logic;
 
 import com.shirey.cafe.dao.DishDAO;
 import com.shirey.cafe.entity.Dish;
+import com.shirey.cafe.entity.DishSearchResult;
 import com.shirey.cafe.exception.DAOException;
 import com.shirey.cafe.exception.LogicException;
 
@@ -37,19 +38,71 @@ public class DishLogic {
     }
 
     /**
-     * Gets a map contains all dishes presented in the order and their quantity from a database.
+     * Gets ids of the most ordered dishes of the last 24 hours from {@code PopularDishes},
+     * the database is not used.
+     *
+     * @return an unmodifiable set of dish ids, the most popular dish is the first
+     */
+    public Set<Integer> findPopularTodayDishIds() {
+        return PopularDishes.getInstance().getTop(PopularDishes.Window.DAY);
+    }
+
+    /**
+     * Gets ids of the most ordered dishes of the last 7 days from {@code PopularDishes},
+     * the database is not used.
+     *
+     * @return an unmodifiable set of dish ids, the most popular dish is the first
+     */
+    public Set<Integer> findPopularThisWeekDishIds() {
+        return PopularDishes.getInstance().getTop(PopularDishes.Window.WEEK);
+    }
+
+    /**
+     * Finds dishes presented in the menu by the query (prefixes of words of dish name and description)
+     * and completions of the last word of the query using {@code DishSearchIndex}.
+     * The database is used only to load the index if it is not loaded yet.
+     *
+     * @param query          a query
+     * @param maxCompletions the max amount of completions
+     * @return a {@code DishSearchResult} object
+     * @throws LogicException if {@code DaoException} occurs (database access error)
+     */
+    public DishSearchResult searchDishes(String query, int maxCompletions) throws LogicException {
+
+        DishSearchIndex index = DishSearchIndex.getInstance();
+        if (!index.isLoaded()) {
+            long generation = index.getGeneration();
+            try {
+                index.load(dishDAO.findDishesInMenu(), generation);
+            } catch (DAOException e) {
+                throw new LogicException(e);
+            }
+        }
+        return new DishSearchResult(query, index.search(query), index.complete(query, maxCompletions));
+    }
+
+    /**
+     * Gets a map contains all dishes presented in the order and their quantity.
+     * Order lines never change after the order is made, so they are taken from the cache,
+     * the database is used only if the order is not cached.
      *
      * @param orderId a order id
-     * @return a map contains {@code Dish} and their quantity in the order, not null
+     * @return an unmodifiable map contains {@code Dish} presented in the order and their quantity, not null
      * @throws LogicException if {@code DaoException} occurs (database access error)
      */
     public Map<Dish, Integer> findDishesInOrder(int orderId) throws LogicException {
 
+        OrderLinesCache cache = OrderLinesCache.getInstance();
+        Map<Dish, Integer> dishes = cache.get(orderId);
+        if (dishes != null) {
+            return dishes;
+        }
         try {
-            return dishDAO.findDishesInOrder(orderId);
+            dishes = dishDAO.findDishesInOrder(orderId);
         } catch (DAOException e) {
             throw new LogicException(e);
         }
+        return dishes.isEmpty() ? dishes : cache.put(orderId, dishes);
     }
 
     /**
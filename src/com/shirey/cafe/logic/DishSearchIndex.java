@@ -0,0 +1,317 @@
+package com.shirey.cafe.logic;
+
+import com.shirey.cafe.entity.Dish;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The {@code DishSearchIndex} class
+ * is an in-memory inverted index of words of names and descriptions of dishes presented in the menu.
+ * <p>
+ * Words are kept in a prefix tree (trie), the node of each word contains ids of dishes with this word,
+ * so a dish is found by prefixes of its words (search as you type) and words are completed by a prefix.
+ * Words consist of letters and digits of any alphabet (Latin and Cyrillic), they are compared in lower case,
+ * 'ё' is the same as 'е'.
+ * <p>
+ * The index is loaded from the database by the first search and then is changed incrementally
+ * when a dish is added or edited. A dish list loaded before a change is not installed,
+ * the next search loads the index again.
+ * <p>
+ * This class has package-private access level, it is used only by logic classes.
+ * Thread safe, searches don't block each other.
+ *
+ * @author Alex Shirey
+ */
+
+class DishSearchIndex {
+
+    private static final DishSearchIndex INSTANCE = new DishSearchIndex();
+
+    private static final Comparator<Dish> MENU_ORDER =
+            Comparator.comparingInt((Dish dish) -> dish.getType().getDishTypeId()).thenComparingInt(Dish::getDishId);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Dish> dishes = new HashMap<>();
+    private final Map<Integer, Set<String>> wordsByDish = new HashMap<>();
+    private final Node root = new Node();
+    private boolean loaded;
+    private long generation;
+
+    static DishSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return {@code true} if the index was loaded and can be searched
+     */
+    boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the current generation, it should be got before loading dishes from the database
+     */
+    long getGeneration() {
+        lock.readLock().lock();
+        try {
+            return generation;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the content of the index with the given dishes, if no dish was changed since the given generation.
+     *
+     * @param menu       dishes presented in the menu
+     * @param generation the generation that was got before loading the dishes
+     * @return {@code true} if the dishes were installed
+     */
+    boolean load(Collection<Dish> menu, long generation) {
+        lock.writeLock().lock();
+        try {
+            if (this.generation != generation) {
+                return false;
+            }
+            dishes.clear();
+            wordsByDish.clear();
+            root.children.clear();
+            root.dishIds.clear();
+            for (Dish dish : menu) {
+                add(dish);
+            }
+            loaded = true;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the dish or replaces the previous version of the dish.
+     * The dish is removed if it is not presented in the menu.
+     *
+     * @param dish an added or edited dish
+     */
+    void put(Dish dish) {
+        lock.writeLock().lock();
+        try {
+            generation++;
+            removeWords(dish.getDishId());
+            if (dish.isInMenu()) {
+                add(dish);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds dishes that contain words starting with each word of the query.
+     *
+     * @param query a query, words are separated by any characters except letters and digits
+     * @return copies of found dishes ordered as in the menu (by dish type and id),
+     * empty list if the query has no words
+     */
+    List<Dish> search(String query) {
+
+        List<String> queryWords = tokenize(query);
+        if (queryWords.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Dish> found = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Set<Integer> ids = null;
+            for (String word : queryWords) {
+                Set<Integer> wordIds = new HashSet<>();
+                Node node = find(word);
+                if (node != null) {
+                    collectDishIds(node, wordIds);
+                }
+                if (ids == null) {
+                    ids = wordIds;
+                } else {
+                    ids.retainAll(wordIds);
+                }
+                if (ids.isEmpty()) {
+                    return found;
+                }
+            }
+            for (Integer id : ids) {
+                found.add(copy(dishes.get(id)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        found.sort(MENU_ORDER);
+        return found;
+    }
+
+    /**
+     * Completes the last word of the query by the words of the index.
+     *
+     * @param query a query
+     * @param limit the max amount of completions
+     * @return words starting with the last word of the query, words of more dishes go first
+     */
+    List<String> complete(String query, int limit) {
+
+        List<String> queryWords = tokenize(query);
+        if (queryWords.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String prefix = queryWords.get(queryWords.size() - 1);
+        Map<String, Integer> words = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            Node node = find(prefix);
+            if (node != null) {
+                collectWords(node, new StringBuilder(prefix), words);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Set<String> sorted = new TreeSet<>(Comparator.comparing((String word) -> -words.get(word))
+                .thenComparing(Comparator.naturalOrder()));
+        sorted.addAll(words.keySet());
+        List<String> completions = new ArrayList<>(Math.min(limit, sorted.size()));
+        for (String word : sorted) {
+            if (completions.size() == limit) {
+                break;
+            }
+            completions.add(word);
+        }
+        return completions;
+    }
+
+    /**
+     * Splits the text into lower case words of letters and digits.
+     *
+     * @param text a text, may be {@code null}
+     * @return a list of words, not null
+     */
+    static List<String> tokenize(String text) {
+
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replace('\u0451', '\u0435');
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private void add(Dish dish) {
+
+        Set<String> words = new HashSet<>(tokenize(dish.getName()));
+        words.addAll(tokenize(dish.getDescription()));
+        for (String word : words) {
+            Node node = root;
+            for (int i = 0; i < word.length(); i++) {
+                node = node.children.computeIfAbsent(word.charAt(i), c -> new Node());
+            }
+            node.dishIds.add(dish.getDishId());
+        }
+        dishes.put(dish.getDishId(), copy(dish));
+        wordsByDish.put(dish.getDishId(), words);
+    }
+
+    private void removeWords(int dishId) {
+
+        Set<String> words = wordsByDish.remove(dishId);
+        dishes.remove(dishId);
+        if (words != null) {
+            for (String word : words) {
+                remove(root, word, 0, dishId);
+            }
+        }
+    }
+
+    /**
+     * Removes the dish id from the node of the word and removes nodes that became empty.
+     *
+     * @return {@code true} if the node became empty
+     */
+    private static boolean remove(Node node, String word, int index, int dishId) {
+
+        if (index == word.length()) {
+            node.dishIds.remove(dishId);
+        } else {
+            Node child = node.children.get(word.charAt(index));
+            if (child != null && remove(child, word, index + 1, dishId)) {
+                node.children.remove(word.charAt(index));
+            }
+        }
+        return node.dishIds.isEmpty() && node.children.isEmpty();
+    }
+
+    private Node find(String prefix) {
+
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    private static void collectDishIds(Node node, Set<Integer> ids) {
+
+        ids.addAll(node.dishIds);
+        for (Node child : node.children.values()) {
+            collectDishIds(child, ids);
+        }
+    }
+
+    private static void collectWords(Node node, StringBuilder word, Map<String, Integer> words) {
+
+        if (!node.dishIds.isEmpty()) {
+            words.put(word.toString(), node.dishIds.size());
+        }
+        for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+            word.append(entry.getKey());
+            collectWords(entry.getValue(), word, words);
+            word.setLength(word.length() - 1);
+        }
+    }
+
+    private static Dish copy(Dish dish) {
+        try {
+            return dish.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("dish can't be cloned", e);
+        }
+    }
+
+    private static class Node {
+
+        private final Map<Character, Node> children = new HashMap<>();
+        private final Set<Integer> dishIds = new HashSet<>();
+    }
+
+}
@@ -4,6 +4,9 @@ import com.shirey.cafe.dao.UserDAO;
 import com.shirey.cafe.entity.User;
 import com.shirey.cafe.exception.DAOException;
 import com.shirey.cafe.exception.LogicException;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
  * The {@code GuestLogic} class
@@ -14,23 +17,55 @@ import com.shirey.cafe.exception.LogicException;
 
 public class GuestLogic {
 
+    private static final Logger LOGGER = LogManager.getLogger(GuestLogic.class);
     private UserDAO userDAO = new UserDAO();
 
     /**
-     * Gets (after finding and creating) a {@code User} object from a database using login and password.
+     * Gets (after finding and creating) a {@code User} object from a database using login,
+     * verifies the password with the stored hash.
+     * If the stored hash is a legacy (MD5) hash or it is weaker than the current settings,
+     * it is replaced with a new hash. Replacing is best-effort: if the password can't be hashed now
+     * or the hash can't be saved, the error is logged, the user is logged in and the hash is replaced next time.
      *
      * @param login    a user login
      * @param password a user password
-     * @return a {@code User} object, or null if no row is presented in database with such parameters
-     * @throws LogicException if {@code DaoException} occurs (database access error)
+     * @return a {@code User} object, or null if no row is presented in database with such login
+     * or the password doesn't match
+     * @throws LogicException if {@code DaoException} occurs (database access error) or
+     *                        the password can't be verified now (too many login requests)
+     * @see PasswordHasher
      */
     public User findUserByLoginAndPass(String login, String password) throws LogicException {
 
+        User user;
         try {
-            return userDAO.findUserByLoginAndPass(login, password);
+            user = userDAO.findUserByLogin(login);
         } catch (DAOException e) {
             throw new LogicException(e);
         }
+        if (user == null) {
+            PasswordHasher.verifyDummy(password);
+            return null;
+        }
+        if (!PasswordHasher.verify(password, user.getPassword())) {
+            return null;
+        }
+        if (PasswordHasher.needsRehash(user.getPassword())) {
+            rehashPassword(user, password);
+        }
+        return user;
+    }
+
+    private void rehashPassword(User user, String password) {
+
+        try {
+            String hash = PasswordHasher.hash(password);
+            userDAO.updatePassword(user.getUserId(), hash);
+            user.setPassword(hash);
+        } catch (LogicException | DAOException e) {
+            LOGGER.log(Level.WARN, "can't replace password hash of the user " + user.getUserId()
+                    + ", it will be replaced after the next login.", e);
+        }
     }
 
     /**
@@ -59,11 +94,12 @@ public class GuestLogic {
      * @param lastName  a lastName value
      * @param phone     a phone value
      * @return a {@code User} object, not null
-     * @throws LogicException if {@code DaoException} occurs (database access error)
+     * @throws LogicException if {@code DaoException} occurs (database access error) or
+     *                        the password can't be hashed now
      */
     public User registerUser(String login, String password, String firstName, String lastName, String phone) throws LogicException {
 
-        User user = new User(login, password, firstName, lastName, phone);
+        User user = new User(login, PasswordHasher.hash(password), firstName, lastName, phone);
         try {
             userDAO.create(user);
             user = userDAO.findEntityById(user.getUserId());
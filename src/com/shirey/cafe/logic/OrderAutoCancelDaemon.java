@@ -1,7 +1,9 @@
 package com.shirey.cafe.logic;
 
+import com.shirey.cafe.db.UnitOfWork;
 import com.shirey.cafe.entity.Order;
 import com.shirey.cafe.entity.User;
+import com.shirey.cafe.exception.ConnectionException;
 import com.shirey.cafe.exception.LogicException;
 import com.shirey.cafe.manager.ApplicationManager;
 import org.apache.logging.log4j.Level;
@@ -23,7 +25,6 @@ import java.util.concurrent.TimeUnit;
 public class OrderAutoCancelDaemon extends Thread {
 
     private static final Logger LOGGER = LogManager.getLogger(OrderAutoCancelDaemon.class);
-    private static long additionalTimeBeforeCancel;
     private OrderLogic orderLogic = new OrderLogic();
     private UserLogic userLogic = new UserLogic();
     private long timeToSleepBeforeCancel;
@@ -40,8 +41,9 @@ public class OrderAutoCancelDaemon extends Thread {
      * Current thread sleeps a defined time,
      * if the order is still active, cancels the order and
      * bans user if he has 3 cancelled orders.
+     * Cancelling and banning use one connection and one transaction ({@code UnitOfWork}).
      *
-     * @throws RuntimeException in case of InterruptedException or LogicException
+     * @throws RuntimeException in case of InterruptedException, LogicException or ConnectionException
      */
     @Override
     public void run() {
@@ -53,26 +55,25 @@ public class OrderAutoCancelDaemon extends Thread {
             throw new RuntimeException("Interrupted exception while sleeping.", e);
         }
 
-        try {
-            if (orderLogic.isOrderActive(order)) {
-                orderLogic.cancelOrder(user, order);
-                if (orderLogic.getUserCancelledOrdersAmount(order.getUserId()) == 3) {
-                    userLogic.banUser(user);
-                }
+        try (UnitOfWork unitOfWork = UnitOfWork.begin(true)) {
+            if (orderLogic.cancelOrder(user, order)
+                    && orderLogic.getUserCancelledOrdersAmount(order.getUserId()) == 3) {
+                userLogic.banUser(user);
             }
-        } catch (LogicException e) {
-            LOGGER.log(Level.ERROR, "LogicException while trying to cancel order.", e);
-            throw new RuntimeException("LogicException while trying to cancel order.", e);
+            unitOfWork.commit();
+        } catch (LogicException | ConnectionException e) {
+            LOGGER.log(Level.ERROR, "Exception while trying to cancel order.", e);
+            throw new RuntimeException("Exception while trying to cancel order.", e);
         }
     }
 
 
     /**
      * Defines additional time to sleep after pick up date comes.
-     * Additional time is a value in a properties file.
+     * Additional time is a value in a properties file,
+     * it is read on every call, so a reloaded value is used by the next order.
      *
      * @return a long time in millis
-     * @throws ClassCastException    if the object found for the given key is not a string
      * @throws RuntimeException      if no resource bundle for the specified base name can be found or
      *                               if no object for the given key can be found
      * @throws NumberFormatException if the string does not contain a
@@ -80,10 +81,7 @@ public class OrderAutoCancelDaemon extends Thread {
      */
     public static long getAdditionalTimeBeforeCancel() {
 
-        if (additionalTimeBeforeCancel == 0) {
-            additionalTimeBeforeCancel = TimeUnit.MINUTES.toMillis(Long.parseLong(ApplicationManager.getProperty("app.additionalTimeInMinutesBeforeAutoCancel")));
-        }
-        return additionalTimeBeforeCancel;
+        return TimeUnit.MINUTES.toMillis(Long.parseLong(ApplicationManager.getProperty("app.additionalTimeInMinutesBeforeAutoCancel")));
     }
 
 }
@@ -0,0 +1,131 @@
+package com.shirey.cafe.logic;
+
+import com.shirey.cafe.db.UnitOfWork;
+import com.shirey.cafe.entity.OrderHistory;
+import com.shirey.cafe.manager.ApplicationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@code OrderHistoryCache} class
+ * is a size-bounded cache of first pages of users' order histories (least recently used histories are evicted).
+ * <p>
+ * A history of the user is invalidated on every order event of this user (order is made, cancelled, finished,
+ * feedback is left or removed). If the event happens in a transactional {@code UnitOfWork}, the history
+ * is invalidated once more after the transaction is completed, so a history that was loaded by another request
+ * before the commit is not kept. To prevent caching a history that was loaded before the invalidation,
+ * a history is put only if the history of this user was not invalidated after {@link #getGeneration()}
+ * was called before loading. The generation of the last invalidation is kept for recently invalidated users
+ * (as many as the capacity), so events of other users don't prevent putting histories.
+ * <p>
+ * This class has package-private access level, it is used only by logic classes.
+ * Thread safe.
+ *
+ * @author Alex Shirey
+ */
+
+class OrderHistoryCache {
+
+    private static final OrderHistoryCache INSTANCE =
+            new OrderHistoryCache(Integer.parseInt(ApplicationManager.getProperty("app.orderHistoryCacheSize")));
+
+    private final Map<Integer, OrderHistory> histories;
+    private final Map<Integer, Long> invalidations;
+    private long generation;
+    private long forgottenGeneration;
+
+    /**
+     * @param capacity the max amount of cached histories
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    OrderHistoryCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity can't be less than 1");
+        }
+        histories = new LinkedHashMap<Integer, OrderHistory>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, OrderHistory> eldest) {
+                return size() > capacity;
+            }
+        };
+        invalidations = new LinkedHashMap<Integer, Long>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Long> eldest) {
+                if (size() > capacity) {
+                    forgottenGeneration = eldest.getValue();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    static OrderHistoryCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param userId a user id
+     * @return the cached history, or {@code null}
+     */
+    synchronized OrderHistory get(int userId) {
+        return histories.get(userId);
+    }
+
+    /**
+     * @return the current generation, it should be got before loading a history from the database
+     */
+    synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Puts the history if the history of the user was not invalidated since the given generation.
+     * If the generation of the last invalidation of the user is already forgotten, the generation
+     * of the latest forgotten invalidation is used.
+     *
+     * @param userId     a user id
+     * @param history    a history loaded from the database
+     * @param generation the generation that was got before loading the history
+     */
+    synchronized void put(int userId, OrderHistory history, long generation) {
+        Long invalidated = invalidations.get(userId);
+        if ((invalidated != null ? invalidated : forgottenGeneration) <= generation) {
+            histories.put(userId, history);
+        }
+    }
+
+    /**
+     * Removes the history of the user, and if the current thread has an active transactional unit of work,
+     * removes the history once more when the transaction is completed.
+     *
+     * @param userId a user id
+     */
+    void invalidate(int userId) {
+        remove(userId);
+        UnitOfWork.afterCompletion(() -> remove(userId));
+    }
+
+    private synchronized void remove(int userId) {
+        histories.remove(userId);
+        generation++;
+        invalidations.remove(userId);
+        invalidations.put(userId, generation);
+    }
+
+    /**
+     * Removes all histories.
+     */
+    synchronized void clear() {
+        histories.clear();
+        generation++;
+        invalidations.clear();
+        forgottenGeneration = generation;
+    }
+
+    synchronized int size() {
+        return histories.size();
+    }
+
+}
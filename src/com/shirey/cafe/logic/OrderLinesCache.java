@@ -0,0 +1,90 @@
+package com.shirey.cafe.logic;
+
+import com.shirey.cafe.entity.Dish;
+import com.shirey.cafe.manager.ApplicationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@code OrderLinesCache} class
+ * is a size-bounded cache of order lines (dishes and their quantity) by order id,
+ * least recently used orders are evicted.
+ * <p>
+ * Order lines are written once, when the order is made, and are never changed
+ * (the price of the dish in the order is its price when the order was made),
+ * so cached lines are never invalidated. Lines are put when the order is made,
+ * so the first view of the order details doesn't use the database.
+ * <p>
+ * This class has package-private access level, it is used only by logic classes.
+ * Thread safe.
+ *
+ * @author Alex Shirey
+ */
+
+class OrderLinesCache {
+
+    private static final OrderLinesCache INSTANCE =
+            new OrderLinesCache(Integer.parseInt(ApplicationManager.getProperty("app.orderLinesCacheSize")));
+
+    private final Map<Integer, Map<Dish, Integer>> lines;
+
+    /**
+     * @param capacity the max amount of cached orders
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    OrderLinesCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity can't be less than 1");
+        }
+        lines = new LinkedHashMap<Integer, Map<Dish, Integer>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Map<Dish, Integer>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    static OrderLinesCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param orderId an order id
+     * @return unmodifiable map of dishes and their quantity, or {@code null} if the order is not cached
+     */
+    synchronized Map<Dish, Integer> get(int orderId) {
+        return lines.get(orderId);
+    }
+
+    /**
+     * Puts a copy of the order lines, dishes are cloned, so later changes of
+     * the given map and dishes (for example, a shopping cart) don't change cached lines.
+     *
+     * @param orderId     an order id
+     * @param orderLines  dishes and their quantity
+     * @return unmodifiable map of dishes and their quantity that was put
+     */
+    Map<Dish, Integer> put(int orderId, Map<Dish, Integer> orderLines) {
+
+        Map<Dish, Integer> copy = new LinkedHashMap<>();
+        for (Map.Entry<Dish, Integer> entry : orderLines.entrySet()) {
+            try {
+                copy.put(entry.getKey().clone(), entry.getValue());
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException("dish can't be cloned", e);
+            }
+        }
+        Map<Dish, Integer> unmodifiable = Collections.unmodifiableMap(copy);
+        synchronized (this) {
+            lines.put(orderId, unmodifiable);
+        }
+        return unmodifiable;
+    }
+
+    synchronized int size() {
+        return lines.size();
+    }
+
+}
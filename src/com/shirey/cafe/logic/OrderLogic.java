@@ -3,10 +3,15 @@ package com.shirey.cafe.logic;
 import com.shirey.cafe.dao.OrderDAO;
 import com.shirey.cafe.entity.Dish;
 import com.shirey.cafe.entity.Order;
+import com.shirey.cafe.entity.OrderHistory;
 import com.shirey.cafe.entity.PaymentType;
 import com.shirey.cafe.entity.User;
 import com.shirey.cafe.exception.DAOException;
 import com.shirey.cafe.exception.LogicException;
+import com.shirey.cafe.manager.ApplicationManager;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import java.math.BigDecimal;
 import java.util.Date;
@@ -22,7 +27,10 @@ import java.util.Map;
 
 public class OrderLogic {
 
+    private static final Logger LOGGER = LogManager.getLogger(OrderLogic.class);
+    private static final int ORDER_HISTORY_PAGE_SIZE = Integer.parseInt(ApplicationManager.getProperty("app.orderHistoryPageSize"));
     private CustomerLogic customerLogic = new CustomerLogic();
+    private DishLogic dishLogic = new DishLogic();
     private OrderDAO orderDAO = new OrderDAO();
 
     /**
@@ -31,7 +39,8 @@ public class OrderLogic {
      * defines loyalty point to subtract and subtracts this value from user's loyalty points amount (in the ACCOUNT and CASH payment type cases) or
      * subtracts the order price from user's loyalty points amount (in the LOYALTY_POINTS payment type case),
      * creates new {@code Order} object and updates a database with this values.
-     * After the update, sets updated balance and loyalty points values to the {@code User} object who makes current order.
+     * After the update, sets updated balance and loyalty points values to the {@code User} object who makes current order
+     * puts the order lines (dishes from the cart) to the order lines cache and counts the order in {@code SalesAnalytics} and {@code PopularDishes}.
      * <p>
      * Creates a new daemon {@code Thread} object that cancels the order if it is not picked up.
      *
@@ -62,6 +71,7 @@ public class OrderLogic {
         boolean isPaid = paymentType != PaymentType.CASH;
 
         Order order = new Order(user.getUserId(), paymentType, pickUpTime, orderPrice, isPaid);
+        order.setCreateDate(new Date());
 
         try {
             orderDAO.create(balance, loyaltyPoints, order, cart);
@@ -71,6 +81,10 @@ public class OrderLogic {
 
         user.getAccount().setBalance(balance);
         user.getAccount().setLoyaltyPoints(loyaltyPoints);
+        OrderHistoryCache.getInstance().invalidate(user.getUserId());
+        OrderLinesCache.getInstance().put(order.getOrderId(), cart);
+        SalesAnalytics.getInstance().orderMade(order, cart);
+        PopularDishes.getInstance().orderMade(cart, order.getCreateDate());
 
         OrderAutoCancelDaemon watcher = new OrderAutoCancelDaemon(user, order);
         watcher.setDaemon(true);
@@ -78,16 +92,20 @@ public class OrderLogic {
     }
 
     /**
-     * Cancels the order -
+     * Cancels the order if it is still active -
      * defines loyalty points to subtract and subtracts this value from user's loyalty points amount,
      * updates a database with new order status CANCELLED and user loyalty points.
-     * After the update, sets this value to the params objects.
+     * After the update, sets this value to the params objects and counts the cancellation in {@code SalesAnalytics}.
+     * <p>
+     * The status is checked and changed by one conditional update, so if the order is cancelled
+     * or finished concurrently (by admin, customer or {@code OrderAutoCancelDaemon}), only one of them succeeds.
      *
      * @param user  a {@code User} object to subtract loyalty points
      * @param order a {@code Order} object to update and set new status
+     * @return {@code true} if the order was cancelled, {@code false} if the order is not active
      * @throws LogicException if {@code DaoException} occurs (database access error)
      */
-    public void cancelOrder(User user, Order order) throws LogicException {
+    public boolean cancelOrder(User user, Order order) throws LogicException {
 
         BigDecimal pointsAmountToSubtract = customerLogic.definePointsAmount(order.getOrderPrice(), order.getPaymentType());
         if (pointsAmountToSubtract.compareTo(user.getAccount().getLoyaltyPoints()) > 0) {
@@ -97,48 +115,59 @@ public class OrderLogic {
         BigDecimal loyaltyPoints = user.getAccount().getLoyaltyPoints().subtract(pointsAmountToSubtract);
 
         try {
-            orderDAO.cancelOrder(loyaltyPoints, order, Order.Status.CANCELLED);
+            if (!orderDAO.cancelOrder(loyaltyPoints, order, Order.Status.CANCELLED)) {
+                return false;
+            }
         } catch (DAOException e) {
             throw new LogicException(e);
         }
 
         user.getAccount().setLoyaltyPoints(loyaltyPoints);
         order.setStatus(Order.Status.CANCELLED);
+        OrderHistoryCache.getInstance().invalidate(order.getUserId());
+        SalesAnalytics.getInstance().orderCancelled(order, findLinesForAnalytics(order));
+        return true;
     }
 
     /**
-     * Finishes the order - updates a database with isPaid {@code true} and status 'FINISHED' values,
-     * sets this values to the {@code Order} object after the update.
+     * Finishes the order if it is still active - updates a database with isPaid {@code true} and status 'FINISHED' values,
+     * sets this values to the {@code Order} object after the update and counts the order in {@code SalesAnalytics}.
+     * The status is checked and changed by one conditional update.
      *
      * @param order a {@code Order} object which should be finished.
+     * @return {@code true} if the order was finished, {@code false} if the order is not active
      * @throws LogicException if {@code DaoException} occurs (database access error)
      */
-    public void pickUpOrder(Order order) throws LogicException {
+    public boolean pickUpOrder(Order order) throws LogicException {
 
         Order.Status status = Order.Status.FINISHED;
 
         try {
-            orderDAO.updateOrder(order.getOrderId(), true, status);
+            if (!orderDAO.updateActiveOrder(order.getOrderId(), true, status)) {
+                return false;
+            }
         } catch (DAOException e) {
             throw new LogicException(e);
         }
 
         order.setPaid(true);
         order.setStatus(status);
+        OrderHistoryCache.getInstance().invalidate(order.getUserId());
+        SalesAnalytics.getInstance().orderFinished(order, findLinesForAnalytics(order));
+        return true;
     }
 
     /**
-     * Checks, if the order status is active or not
+     * Gets the order from a database by its id.
      *
-     * @param order an object to check
-     * @return a {@code true} if this order status is active, {@code false} otherwise
+     * @param orderId an order id
+     * @return a {@code Order} object, or {@code null} if there is no order with this id
      * @throws LogicException if {@code DaoException} occurs (database access error)
      */
-    public boolean isOrderActive(Order order) throws LogicException {
+    public Order findOrderById(int orderId) throws LogicException {
 
         try {
-            order = orderDAO.findEntityById(order.getOrderId());
-            return order.getStatus() == Order.Status.ACTIVE;
+            return orderDAO.findEntityById(orderId);
         } catch (DAOException e) {
             throw new LogicException(e);
         }
@@ -176,6 +205,59 @@ public class OrderLogic {
         }
     }
 
+    /**
+     * Gets the first page of user's orders of each status and the amount of user's orders of each status.
+     * The history is cached until an order event of this user happens.
+     *
+     * @param userId a user id
+     * @return a {@code OrderHistory} object, not null
+     * @throws LogicException if {@code DaoException} occurs (database access error)
+     */
+    public OrderHistory findOrderHistory(int userId) throws LogicException {
+
+        OrderHistoryCache cache = OrderHistoryCache.getInstance();
+        OrderHistory history = cache.get(userId);
+        if (history != null) {
+            return history;
+        }
+        long generation = cache.getGeneration();
+        try {
+            history = orderDAO.findOrderHistory(userId, ORDER_HISTORY_PAGE_SIZE);
+        } catch (DAOException e) {
+            throw new LogicException(e);
+        }
+        cache.put(userId, history, generation);
+        return history;
+    }
+
+    /**
+     * Replaces the bucket of the given status in the history with the page of orders
+     * that are older than the order with the cursor id.
+     *
+     * @param history a history of the user
+     * @param userId  a user id
+     * @param status  an order status
+     * @param cursor  an id of the last order of the previous page
+     * @return a new {@code OrderHistory} object
+     * @throws LogicException if {@code DaoException} occurs (database access error)
+     */
+    public OrderHistory findOrderHistoryPage(OrderHistory history, int userId, Order.Status status, int cursor) throws LogicException {
+
+        List<Order> page;
+        try {
+            page = orderDAO.findOrdersPage(userId, status, cursor, ORDER_HISTORY_PAGE_SIZE + 1);
+        } catch (DAOException e) {
+            throw new LogicException(e);
+        }
+        Integer nextCursor = null;
+        if (page.size() > ORDER_HISTORY_PAGE_SIZE) {
+            page = page.subList(0, ORDER_HISTORY_PAGE_SIZE);
+            nextCursor = page.get(ORDER_HISTORY_PAGE_SIZE - 1).getOrderId();
+        }
+        OrderHistory.Bucket bucket = new OrderHistory.Bucket(page, history.getBucket(status).getCount(), nextCursor, false);
+        return history.withBucket(status, bucket);
+    }
+
     /**
      * Gets orders with review from a database in reverse order.
      *
@@ -194,20 +276,36 @@ public class OrderLogic {
     /**
      * Updates a database with new values of order rating and review.
      *
+     * @param userId  an id of the user who left feedback
      * @param orderId order id
      * @param rating  a rating value to update
      * @param review  a review value to update
      * @throws LogicException if {@code DaoException} occurs (database access error)
      */
-    public void leaveFeedback(int orderId, int rating, String review) throws LogicException {
+    public void leaveFeedback(int userId, int orderId, int rating, String review) throws LogicException {
 
         try {
             orderDAO.updateOrderReview(orderId, rating, review);
         } catch (DAOException e) {
             throw new LogicException(e);
         }
+        OrderHistoryCache.getInstance().invalidate(userId);
+        ContentVersion.REVIEWS.increment();
     }
 
+    /**
+     * Gets order lines to count sales of dishes, a database error doesn't fail the order operation.
+     *
+     * @return dishes of the order and their quantity, or {@code null} if they can't be got
+     */
+    private Map<Dish, Integer> findLinesForAnalytics(Order order) {
+        try {
+            return dishLogic.findDishesInOrder(order.getOrderId());
+        } catch (LogicException e) {
+            LOGGER.log(Level.WARN, "order lines weren't found, sales of dishes aren't counted.", e);
+            return null;
+        }
+    }
 }
 
 
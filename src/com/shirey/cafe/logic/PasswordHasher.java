@@ -0,0 +1,212 @@
+package com.shirey.cafe.logic;
+
+import com.shirey.cafe.exception.LogicException;
+import com.shirey.cafe.manager.ApplicationManager;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code PasswordHasher} class
+ * hashes and verifies user passwords in the application (not in the database).
+ * <p>
+ * Passwords are hashed with PBKDF2 (HmacSHA256) and a random salt, the hash is stored
+ * as {@code pbkdf2$iterations$salt$hash}, so the amount of iterations can be increased later
+ * and old hashes are still verified. Hashes without the prefix are legacy MD5 hashes,
+ * they should be replaced after successful login (see {@link #needsRehash(String)}).
+ * <p>
+ * Hashing is CPU expensive, so it is executed on a bounded executor: the amount of threads and
+ * the queue size are set in the application properties file, if the queue is full,
+ * {@code LogicException} is thrown without waiting.
+ * <p>
+ * This class has package-private access level, it is used only by logic classes.
+ *
+ * @author Alex Shirey
+ */
+
+class PasswordHasher {
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2";
+    private static final String SEPARATOR = "$";
+    private static final int SALT_LENGTH = 16;
+    private static final int KEY_LENGTH = 256;
+    private static final int ITERATIONS = Integer.parseInt(ApplicationManager.getProperty("app.passwordHashIterations"));
+    private static final long TIMEOUT_IN_SECONDS = 10;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    /**
+     * A hash that is verified when a user is not found, so the response time
+     * doesn't show if the login exists.
+     */
+    private static final String DUMMY_HASH = computeHash("dummyPassword1");
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private PasswordHasher() {
+    }
+
+    /**
+     * Hashes the password with a new random salt.
+     *
+     * @param password a password to hash
+     * @return a hash to store in the database
+     * @throws LogicException if the executor is busy or the thread was interrupted
+     */
+    static String hash(String password) throws LogicException {
+
+        return execute(() -> computeHash(password));
+    }
+
+    /**
+     * Checks if the password matches the stored hash (PBKDF2 or legacy MD5).
+     *
+     * @param password   a password to check
+     * @param storedHash a hash from the database
+     * @return {@code true} if the password matches the hash, {@code false} otherwise
+     * @throws LogicException if the executor is busy or the thread was interrupted
+     */
+    static boolean verify(String password, String storedHash) throws LogicException {
+
+        return execute(() -> computeVerify(password, storedHash));
+    }
+
+    /**
+     * Verifies the password against a dummy hash, the result is ignored.
+     * Used when there is no user with such login.
+     *
+     * @param password a password to check
+     * @throws LogicException if the executor is busy or the thread was interrupted
+     */
+    static void verifyDummy(String password) throws LogicException {
+
+        verify(password, DUMMY_HASH);
+    }
+
+    /**
+     * Checks if the stored hash should be replaced with a new one -
+     * if it is a legacy MD5 hash or it was computed with fewer iterations than the current value.
+     *
+     * @param storedHash a hash from the database
+     * @return {@code true} if the password should be hashed again
+     */
+    static boolean needsRehash(String storedHash) {
+
+        String[] parts = split(storedHash);
+        return parts == null || Integer.parseInt(parts[1]) < ITERATIONS;
+    }
+
+    private static <T> T execute(Callable<T> task) throws LogicException {
+
+        Future<T> future;
+        try {
+            future = EXECUTOR.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new LogicException("too many password hashing requests, try later.", e);
+        }
+        try {
+            return future.get(TIMEOUT_IN_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new LogicException("current thread was interrupted while hashing password.", e);
+        } catch (ExecutionException | TimeoutException e) {
+            future.cancel(true);
+            throw new LogicException("password hashing failed.", e);
+        }
+    }
+
+    private static String computeHash(String password) {
+
+        byte[] salt = new byte[SALT_LENGTH];
+        RANDOM.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, ITERATIONS);
+        Base64.Encoder encoder = Base64.getEncoder();
+        return PREFIX + SEPARATOR + ITERATIONS + SEPARATOR + encoder.encodeToString(salt) + SEPARATOR + encoder.encodeToString(hash);
+    }
+
+    private static boolean computeVerify(String password, String storedHash) {
+
+        if (storedHash == null) {
+            return false;
+        }
+        String[] parts = split(storedHash);
+        if (parts == null) {
+            return MessageDigest.isEqual(md5Hex(password).getBytes(StandardCharsets.US_ASCII),
+                    storedHash.trim().toLowerCase().getBytes(StandardCharsets.US_ASCII));
+        }
+        Base64.Decoder decoder = Base64.getDecoder();
+        byte[] expected = decoder.decode(parts[3]);
+        byte[] actual = pbkdf2(password, decoder.decode(parts[2]), Integer.parseInt(parts[1]));
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    /**
+     * @return parts of PBKDF2 hash (prefix, iterations, salt, hash), or null if it is a legacy hash
+     */
+    private static String[] split(String storedHash) {
+
+        if (!storedHash.startsWith(PREFIX + SEPARATOR)) {
+            return null;
+        }
+        String[] parts = storedHash.split("\\" + SEPARATOR);
+        return parts.length == 4 ? parts : null;
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEY_LENGTH);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(ALGORITHM + " is not supported.", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static String md5Hex(String password) {
+
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(password.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("MD5 is not supported.", e);
+        }
+    }
+
+    private static ExecutorService createExecutor() {
+
+        int threads = Integer.parseInt(ApplicationManager.getProperty("app.passwordHashThreads"));
+        int queueSize = Integer.parseInt(ApplicationManager.getProperty("app.passwordHashQueueSize"));
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "password-hasher-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+}
@@ -0,0 +1,311 @@
+package com.shirey.cafe.logic;
+
+import com.shirey.cafe.dao.OrderDAO;
+import com.shirey.cafe.db.UnitOfWork;
+import com.shirey.cafe.entity.Dish;
+import com.shirey.cafe.exception.DAOException;
+import com.shirey.cafe.manager.ApplicationManager;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * The {@code PopularDishes} class
+ * tracks the most ordered dishes (by quantity) of the last day and of the last week (sliding windows).
+ * <p>
+ * Orders are counted in hourly slots, each slot is a {@code CountMinSketch}, so the memory doesn't depend
+ * on the amount of orders. The count of a dish in a window is the sum of its estimates in the slots of the window.
+ * The top dishes of each window are kept in a min-heap bounded by app.popularDishesCount, the heap is updated
+ * by every ordered dish and is rebuilt when the oldest slot leaves the window.
+ * Top dishes are published as immutable sets, so reading them is O(1), and the menu version is increased
+ * when they change, so cached menu pages are rendered again.
+ * <p>
+ * The tracker is rebuilt from the database when the application starts (one streaming scan of order lines
+ * of the last week) and then is fed by made orders.
+ * <p>
+ * Thread safe.
+ *
+ * @author Alex Shirey
+ */
+
+public class PopularDishes {
+
+    /**
+     * A sliding window of popularity.
+     */
+    enum Window {
+
+        DAY(24), WEEK(24 * 7);
+
+        private final int hours;
+
+        Window(int hours) {
+            this.hours = hours;
+        }
+    }
+
+    private static final Logger LOGGER = LogManager.getLogger(PopularDishes.class);
+    private static final long SLOT_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final int SLOTS = Window.WEEK.hours;
+    private static final int SKETCH_DEPTH = 4;
+    private static final int SKETCH_WIDTH = 64;
+    private static final PopularDishes INSTANCE = new PopularDishes(
+            Integer.parseInt(ApplicationManager.getProperty("app.popularDishesCount")), System::currentTimeMillis);
+
+    private final int topCount;
+    private final LongSupplier clock;
+    private final CountMinSketch[] sketches = new CountMinSketch[SLOTS];
+    private final List<Set<Integer>> dishesInSlots = new ArrayList<>(SLOTS);
+    private final Map<Window, PriorityQueue<Candidate>> heaps = new EnumMap<>(Window.class);
+    private final Map<Window, Map<Integer, Candidate>> heapEntries = new EnumMap<>(Window.class);
+    private volatile Map<Window, Set<Integer>> top;
+    private volatile long currentSlot;
+
+    /**
+     * @param topCount the amount of top dishes of each window
+     * @param clock    a source of the current time in milliseconds
+     * @throws IllegalArgumentException if topCount is less than 1
+     */
+    PopularDishes(int topCount, LongSupplier clock) {
+        if (topCount < 1) {
+            throw new IllegalArgumentException("amount of top dishes can't be less than 1");
+        }
+        this.topCount = topCount;
+        this.clock = clock;
+        for (int i = 0; i < SLOTS; i++) {
+            sketches[i] = new CountMinSketch(SKETCH_DEPTH, SKETCH_WIDTH);
+            dishesInSlots.add(new HashSet<>());
+        }
+        Map<Window, Set<Integer>> emptyTop = new EnumMap<>(Window.class);
+        for (Window window : Window.values()) {
+            heaps.put(window, new PriorityQueue<>(Comparator.comparingInt((Candidate candidate) -> candidate.count)));
+            heapEntries.put(window, new HashMap<>());
+            emptyTop.put(window, Collections.emptySet());
+        }
+        top = emptyTop;
+        currentSlot = clock.getAsLong() / SLOT_MILLIS;
+    }
+
+    static PopularDishes getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Rebuilds the tracker from order lines of the last week in the database.
+     * Should be called once, when the application starts. Order lines are summed by hour and dish
+     * while they are read, the tracker is locked only to add these sums. A database error is logged,
+     * popular dishes are counted from made orders then.
+     */
+    public static void rebuild() {
+
+        PopularDishes tracker = INSTANCE;
+        Date from = new Date(tracker.clock.getAsLong() - SLOTS * SLOT_MILLIS);
+        Map<Long, Map<Integer, Integer>> quantitiesBySlot = new HashMap<>();
+        try {
+            new OrderDAO().scanOrderLines(from, (dishId, quantity, createDate) ->
+                    quantitiesBySlot.computeIfAbsent(createDate.getTime() / SLOT_MILLIS, slot -> new HashMap<>())
+                            .merge(dishId, quantity, Integer::sum));
+        } catch (DAOException e) {
+            LOGGER.log(Level.ERROR, "popular dishes weren't rebuilt from the database.", e);
+            return;
+        }
+        synchronized (tracker) {
+            tracker.advance();
+            quantitiesBySlot.forEach((slot, quantities) -> quantities.forEach(
+                    (dishId, quantity) -> tracker.count(dishId, quantity, slot * SLOT_MILLIS)));
+            tracker.rebuildTop();
+        }
+    }
+
+    /**
+     * Counts dishes of the made order. If the order is made in a transactional {@code UnitOfWork},
+     * dishes are counted after the commit.
+     *
+     * @param lines      dishes of the order and their quantity
+     * @param createDate a date when the order was made
+     */
+    void orderMade(Map<Dish, Integer> lines, Date createDate) {
+
+        Map<Integer, Integer> quantities = new HashMap<>();
+        lines.forEach((dish, quantity) -> quantities.merge(dish.getDishId(), quantity, Integer::sum));
+        Runnable action = () -> add(quantities, createDate.getTime());
+        if (!UnitOfWork.afterCommit(action)) {
+            action.run();
+        }
+    }
+
+    /**
+     * Returns top dishes of the window, the set is not changed later. Takes O(1) time
+     * unless an hour has passed since the last update (then expired counts are removed first).
+     *
+     * @param window a window
+     * @return an unmodifiable set of dish ids, the most popular dish is the first
+     */
+    Set<Integer> getTop(Window window) {
+        if (clock.getAsLong() / SLOT_MILLIS != currentSlot) {
+            synchronized (this) {
+                advance();
+            }
+        }
+        return top.get(window);
+    }
+
+    private synchronized void add(Map<Integer, Integer> quantities, long time) {
+
+        advance();
+        for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+            if (count(entry.getKey(), entry.getValue(), time)) {
+                for (Window window : Window.values()) {
+                    if (time / SLOT_MILLIS > currentSlot - window.hours) {
+                        offer(window, entry.getKey());
+                    }
+                }
+            }
+        }
+        publish();
+    }
+
+    /**
+     * Counts the dish in the slot of the time, a time in the future is counted in the current slot.
+     *
+     * @return {@code false} if the time is older than the week and the dish isn't counted
+     */
+    private boolean count(int dishId, int quantity, long time) {
+
+        long slot = Math.min(time / SLOT_MILLIS, currentSlot);
+        if (slot <= currentSlot - SLOTS) {
+            return false;
+        }
+        int index = (int) (slot % SLOTS);
+        sketches[index].add(dishId, quantity);
+        dishesInSlots.get(index).add(dishId);
+        return true;
+    }
+
+    /**
+     * Clears slots that left the week since the last call and rebuilds top dishes if any slot was cleared.
+     */
+    private void advance() {
+
+        long slot = clock.getAsLong() / SLOT_MILLIS;
+        if (slot <= currentSlot) {
+            return;
+        }
+        long cleared = Math.min(slot - currentSlot, SLOTS);
+        for (long i = 1; i <= cleared; i++) {
+            int index = (int) ((currentSlot + i) % SLOTS);
+            sketches[index].clear();
+            dishesInSlots.get(index).clear();
+        }
+        currentSlot = slot;
+        rebuildTop();
+    }
+
+    private int estimate(Window window, int dishId) {
+
+        int count = 0;
+        for (int i = 0; i < window.hours; i++) {
+            count += sketches[(int) ((currentSlot - i) % SLOTS)].estimate(dishId);
+        }
+        return count;
+    }
+
+    /**
+     * Updates the count of the dish in the heap of the window, or adds the dish if the heap is not full
+     * or the dish is more popular than the least popular dish of the heap.
+     */
+    private void offer(Window window, int dishId) {
+
+        PriorityQueue<Candidate> heap = heaps.get(window);
+        Map<Integer, Candidate> entries = heapEntries.get(window);
+        Candidate candidate = new Candidate(dishId, estimate(window, dishId));
+        Candidate previous = entries.remove(dishId);
+        if (previous != null) {
+            heap.remove(previous);
+        } else if (heap.size() == topCount) {
+            if (heap.peek().count >= candidate.count) {
+                return;
+            }
+            entries.remove(heap.poll().dishId);
+        }
+        heap.add(candidate);
+        entries.put(dishId, candidate);
+    }
+
+    private void rebuildTop() {
+
+        for (Window window : Window.values()) {
+            heaps.get(window).clear();
+            heapEntries.get(window).clear();
+            Set<Integer> dishIds = new HashSet<>();
+            for (int i = 0; i < window.hours; i++) {
+                dishIds.addAll(dishesInSlots.get((int) ((currentSlot - i) % SLOTS)));
+            }
+            for (Integer dishId : dishIds) {
+                offer(window, dishId);
+            }
+        }
+        publish();
+    }
+
+    /**
+     * Publishes top dishes of the heaps and increases the menu version if they or their order have changed.
+     */
+    private void publish() {
+
+        Map<Window, Set<Integer>> newTop = new EnumMap<>(Window.class);
+        for (Window window : Window.values()) {
+            List<Candidate> candidates = new ArrayList<>(heaps.get(window));
+            candidates.sort(Comparator.comparingInt((Candidate candidate) -> candidate.count).reversed()
+                    .thenComparingInt(candidate -> candidate.dishId));
+            Set<Integer> dishIds = new LinkedHashSet<>();
+            for (Candidate candidate : candidates) {
+                dishIds.add(candidate.dishId);
+            }
+            newTop.put(window, Collections.unmodifiableSet(dishIds));
+        }
+        if (!isSameRanking(newTop, top)) {
+            top = newTop;
+            ContentVersion.MENU.increment();
+        }
+    }
+
+    /**
+     * Compares top dishes in order, {@code Set.equals} ignores the order of {@code LinkedHashSet}.
+     */
+    private static boolean isSameRanking(Map<Window, Set<Integer>> first, Map<Window, Set<Integer>> second) {
+        for (Window window : Window.values()) {
+            if (!new ArrayList<>(first.get(window)).equals(new ArrayList<>(second.get(window)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class Candidate {
+
+        private final int dishId;
+        private final int count;
+
+        private Candidate(int dishId, int count) {
+            this.dishId = dishId;
+            this.count = count;
+        }
+    }
+
+}
@@ -0,0 +1,244 @@
+package com.shirey.cafe.logic;
+
+import com.shirey.cafe.dao.SalesRollupDAO;
+import com.shirey.cafe.db.UnitOfWork;
+import com.shirey.cafe.entity.Dish;
+import com.shirey.cafe.entity.Order;
+import com.shirey.cafe.entity.SalesBucket;
+import com.shirey.cafe.exception.DAOException;
+import com.shirey.cafe.exception.LogicException;
+import com.shirey.cafe.manager.ApplicationManager;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code SalesAnalytics} class
+ * maintains sales counters by day, hour, dish and payment type (see {@link SalesBucket.Dimension}).
+ * <p>
+ * Order events (made, cancelled, finished) are added to in-memory counters, an event that happens
+ * in a transactional {@code UnitOfWork} is added only after the commit. Counters are flushed to the table
+ * 'sales_rollup' in batches by a daemon thread every app.salesFlushIntervalInSeconds seconds,
+ * so order requests don't wait for analytics and don't lock rollup rows.
+ * If the flush fails, counters are kept and flushed next time.
+ * <p>
+ * Sales are read from the rollup table (one row per bucket) and counters that are not flushed yet are added,
+ * so reading doesn't depend on the amount of orders. Counters that are being flushed may be missed for a moment.
+ * A day and an hour of the order are defined by its create date in the default time zone.
+ * <p>
+ * Thread safe.
+ *
+ * @author Alex Shirey
+ */
+
+public class SalesAnalytics {
+
+    private static final Logger LOGGER = LogManager.getLogger(SalesAnalytics.class);
+    private static final SalesAnalytics INSTANCE = new SalesAnalytics(new SalesRollupDAO());
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final DateTimeFormatter HOUR_FORMATTER = DateTimeFormatter.ofPattern("HH");
+    private static final long STOP_TIMEOUT_SECONDS = 10;
+    private static ScheduledExecutorService flusher;
+
+    private final SalesRollupDAO salesRollupDAO;
+    private Map<String, SalesBucket> pending = new HashMap<>();
+
+    SalesAnalytics(SalesRollupDAO salesRollupDAO) {
+        this.salesRollupDAO = salesRollupDAO;
+    }
+
+    static SalesAnalytics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts the daemon thread that flushes counters to the database periodically.
+     * Does nothing if the thread is already started.
+     */
+    public static synchronized void startFlushing() {
+
+        if (flusher != null) {
+            return;
+        }
+        long interval = Long.parseLong(ApplicationManager.getProperty("app.salesFlushIntervalInSeconds"));
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sales-analytics-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(INSTANCE::flush, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the daemon thread and flushes counters for the last time,
+     * should be called before the connection pool is closed.
+     * Waits up to {@value #STOP_TIMEOUT_SECONDS} seconds for a flush that is in progress,
+     * so the last flush doesn't run with it.
+     */
+    public static synchronized void stopFlushing() {
+
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.log(Level.WARN, "sales analytics flush didn't finish in " + STOP_TIMEOUT_SECONDS + " seconds.");
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            flusher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        flusher = null;
+        INSTANCE.flush();
+    }
+
+    /**
+     * Adds the made order to counters.
+     *
+     * @param order a made order
+     * @param lines dishes of the order and their quantity
+     */
+    void orderMade(Order order, Map<Dish, Integer> lines) {
+        record(order, lines, Order.Status.ACTIVE);
+    }
+
+    /**
+     * Adds the cancelled order to counters.
+     *
+     * @param order a cancelled order
+     * @param lines dishes of the order and their quantity, {@code null} if they are unknown
+     *              (dish counters are not changed then)
+     */
+    void orderCancelled(Order order, Map<Dish, Integer> lines) {
+        record(order, lines, Order.Status.CANCELLED);
+    }
+
+    /**
+     * Adds the finished order to counters.
+     *
+     * @param order a finished order
+     * @param lines dishes of the order and their quantity, {@code null} if they are unknown
+     *              (dish counters are not changed then)
+     */
+    void orderFinished(Order order, Map<Dish, Integer> lines) {
+        record(order, lines, Order.Status.FINISHED);
+    }
+
+    /**
+     * Gets sales of the dimension starting from the bucket.
+     *
+     * @param dimension  a dimension
+     * @param fromBucket the first bucket (buckets are compared as strings), an empty string for all buckets
+     * @return a list contains {@code SalesBucket} in no particular order, not null
+     * @throws LogicException if {@code DaoException} occurs (database access error)
+     */
+    List<SalesBucket> findSales(SalesBucket.Dimension dimension, String fromBucket) throws LogicException {
+
+        List<SalesBucket> stored;
+        try {
+            stored = salesRollupDAO.findBuckets(dimension, fromBucket);
+        } catch (DAOException e) {
+            throw new LogicException(e);
+        }
+        Map<String, SalesBucket> sales = new HashMap<>();
+        for (SalesBucket bucket : stored) {
+            sales.put(bucket.getBucket(), bucket);
+        }
+        synchronized (this) {
+            for (SalesBucket bucket : pending.values()) {
+                if (bucket.getDimension() == dimension && bucket.getBucket().compareTo(fromBucket) >= 0) {
+                    sales.merge(bucket.getBucket(), bucket, SalesBucket::plus);
+                }
+            }
+        }
+        return new ArrayList<>(sales.values());
+    }
+
+    /**
+     * Writes counters to the database and resets them.
+     * If the database access error occurs, counters are kept to be written next time.
+     */
+    void flush() {
+
+        Map<String, SalesBucket> flushed;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            flushed = pending;
+            pending = new HashMap<>();
+        }
+        try {
+            salesRollupDAO.addAll(flushed.values());
+        } catch (DAOException e) {
+            LOGGER.log(Level.WARN, "sales counters weren't flushed, they will be flushed next time.", e);
+            synchronized (this) {
+                flushed.forEach((key, bucket) -> pending.merge(key, bucket, SalesBucket::plus));
+            }
+        }
+    }
+
+    private void record(Order order, Map<Dish, Integer> lines, Order.Status event) {
+
+        List<SalesBucket> buckets = defineBuckets(order, lines, event);
+        Runnable action = () -> add(buckets);
+        if (!UnitOfWork.afterCommit(action)) {
+            action.run();
+        }
+    }
+
+    private synchronized void add(List<SalesBucket> buckets) {
+        for (SalesBucket bucket : buckets) {
+            pending.merge(bucket.getDimension() + ":" + bucket.getBucket(), bucket, SalesBucket::plus);
+        }
+    }
+
+    /**
+     * Defines counters of all dimensions that are changed by the order event.
+     */
+    static List<SalesBucket> defineBuckets(Order order, Map<Dish, Integer> lines, Order.Status event) {
+
+        Date createDate = order.getCreateDate() != null ? order.getCreateDate() : new Date();
+        LocalDateTime createTime = LocalDateTime.ofInstant(createDate.toInstant(), ZoneId.systemDefault());
+
+        List<SalesBucket> buckets = new ArrayList<>();
+        buckets.add(createBucket(SalesBucket.Dimension.DAY, createTime.format(DAY_FORMATTER), event, order.getOrderPrice(), 0));
+        buckets.add(createBucket(SalesBucket.Dimension.HOUR, createTime.format(HOUR_FORMATTER), event, order.getOrderPrice(), 0));
+        buckets.add(createBucket(SalesBucket.Dimension.PAYMENT_TYPE, order.getPaymentType().name(), event, order.getOrderPrice(), 0));
+        for (Map.Entry<Dish, Integer> line : (lines != null ? lines : Collections.<Dish, Integer>emptyMap()).entrySet()) {
+            BigDecimal amount = line.getKey().getPrice().multiply(BigDecimal.valueOf(line.getValue()));
+            buckets.add(createBucket(SalesBucket.Dimension.DISH, String.valueOf(line.getKey().getDishId()), event, amount,
+                    event == Order.Status.ACTIVE ? line.getValue() : 0));
+        }
+        return buckets;
+    }
+
+    private static SalesBucket createBucket(SalesBucket.Dimension dimension, String bucket, Order.Status event,
+                                            BigDecimal amount, int quantity) {
+        switch (event) {
+            case ACTIVE:
+                return new SalesBucket(dimension, bucket, null, 1, amount, 0, BigDecimal.ZERO, 0, quantity);
+            case CANCELLED:
+                return new SalesBucket(dimension, bucket, null, 0, BigDecimal.ZERO, 1, amount, 0, 0);
+            default:
+                return new SalesBucket(dimension, bucket, null, 0, BigDecimal.ZERO, 0, BigDecimal.ZERO, 1, 0);
+        }
+    }
+
+}
@@ -19,21 +19,23 @@ public class UserLogic {
     private static UserDAO userDAO = new UserDAO();
 
     /**
-     * Updates a database with new password value,
-     * sets this value to the current {@code User} object after the update.
+     * Updates a database with hash of the new password,
+     * sets this hash to the current {@code User} object after the update.
      *
      * @param user     a {@code User} object to change
      * @param password a new password value
-     * @throws LogicException if {@code DaoException} occurs (database access error)
+     * @throws LogicException if {@code DaoException} occurs (database access error) or
+     *                        the password can't be hashed now
      */
     public void changePassword(User user, String password) throws LogicException {
 
+        String hash = PasswordHasher.hash(password);
         try {
-            userDAO.updatePassword(user.getUserId(), password);
+            userDAO.updatePassword(user.getUserId(), hash);
         } catch (DAOException e) {
             throw new LogicException(e);
         }
-        user.setPassword(password);
+        user.setPassword(hash);
     }
 
     /**
@@ -54,6 +56,7 @@ public class UserLogic {
         }
         user.setFirstName(firstName);
         user.setLastName(lastName);
+        ContentVersion.REVIEWS.increment();
     }
 
     /**
@@ -72,6 +75,7 @@ public class UserLogic {
             throw new LogicException(e);
         }
         user.setPhone(phone);
+        ContentVersion.REVIEWS.increment();
     }
 
     /**
@@ -93,13 +97,30 @@ public class UserLogic {
     }
 
     /**
-     * Gets (after finding and creating) a {@code User} object from a database using userId.
+     * Gets a {@code User} object from the user cache or from a database using userId.
+     * The user is used to show pages, balance and loyalty points of the returned user
+     * mustn't be used to calculate new values, use {@link #findActualUserById(int)} for that.
      *
      * @param userId a user id to find and create the {@code User} object
-     * @return a founded and created {@code User} object
+     * @return a founded and created {@code User} object, or null if there is no such user
      * @throws LogicException if {@code DaoException} occurs (database access error)
      */
     public User findUserById(int userId) throws LogicException {
+        try {
+            return userDAO.findCachedUserById(userId);
+        } catch (DAOException e) {
+            throw new LogicException(e);
+        }
+    }
+
+    /**
+     * Gets (after finding and creating) a {@code User} object from a database using userId, bypassing the user cache.
+     *
+     * @param userId a user id to find and create the {@code User} object
+     * @return a founded and created {@code User} object, or null if there is no such user
+     * @throws LogicException if {@code DaoException} occurs (database access error)
+     */
+    public User findActualUserById(int userId) throws LogicException {
         try {
             return userDAO.findEntityById(userId);
         } catch (DAOException e) {
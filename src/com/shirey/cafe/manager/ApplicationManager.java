@@ -1,29 +1,22 @@
 package com.shirey.cafe.manager;
 
-import org.apache.logging.log4j.Level;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-
-import java.util.MissingResourceException;
-import java.util.ResourceBundle;
-
 /**
  * The {@code ApplicationManager} class
  * is a manager that gets a string from
  * application configuration property file.
+ * <p>
+ * Values are loaded once and can be reloaded at runtime (see {@code ConfigurationWatcher}).
  *
  * @author Alex Shirey
  */
 
 public class ApplicationManager {
 
-    private static final Logger LOGGER = LogManager.getLogger(PageManager.class);
-
     /**
      * property file path and name
      */
     private static final String APP_CONFIG_PATH = "resources.configuration.app";
-    private static ResourceBundle resourceBundle;
+    static final PropertySource SOURCE = new PropertySource(APP_CONFIG_PATH);
 
     /**
      * Don't let anyone instantiate this class.
@@ -32,42 +25,30 @@ public class ApplicationManager {
     }
 
     /**
-     * Gets a string for the given key from this resource bundle.
+     * Gets a string for the given key from the property file.
      * <p>
-     * On the first call, this method calls private method init() to initialise current resource bundle.
+     * On the first call, the property file is loaded.
      *
      * @param key a key that should be found in the property file.
      * @return the string for the given key
      * @throws NullPointerException if <code>key</code> is <code>null</code>
-     * @throws ClassCastException   if the object found for the given key is not a string
      * @throws RuntimeException     if no resource bundle for the specified base name can be found or
      *                              if no object for the given key can be found
      */
     public static String getProperty(String key) {
-        if (resourceBundle == null) {
-            init();
-        }
-
-        try {
-            return resourceBundle.getString(key);
-        } catch (MissingResourceException e) {
-            LOGGER.log(Level.ERROR, e.getMessage(), e);
-            throw new RuntimeException("couldn't load resources, no object for the given key can be found", e);
-        }
+        return SOURCE.getProperty(key);
     }
 
     /**
-     * Init current resource bundle.
+     * Determines whether the given key is contained in the property file.
      *
-     * @throws RuntimeException if no resource bundle for the specified base name can be found
+     * @param key a key that should be found in the property file.
+     * @return {@code true} if the given key is contained in the property file, {@code false} otherwise
+     * @throws NullPointerException if <code>key</code> is <code>null</code>
+     * @throws RuntimeException     if no resource bundle for the specified base name can be found
      */
-    private static void init() {
-        try {
-            resourceBundle = ResourceBundle.getBundle(APP_CONFIG_PATH);
-        } catch (MissingResourceException e) {
-            LOGGER.log(Level.ERROR, e.getMessage(), e);
-            throw new RuntimeException("couldn't load resources, no resource bundle for the specified base name can be found", e);
-        }
+    public static boolean containsKey(String key) {
+        return SOURCE.containsKey(key);
     }
 
 }
@@ -0,0 +1,158 @@
+package com.shirey.cafe.manager;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@code ConfigurationWatcher} class
+ * watches configuration property files and reloads managers when a file is changed,
+ * so changed pages, database or application values are used without restart.
+ * <p>
+ * Only property files that are placed in a file system directory are watched
+ * (not inside a jar). Values that are read once when the application starts
+ * (command limits, rate limits, password hashing pool) still need a restart.
+ *
+ * @author Alex Shirey
+ */
+
+public class ConfigurationWatcher {
+
+    private static final Logger LOGGER = LogManager.getLogger(ConfigurationWatcher.class);
+    private static final String PROPERTIES_EXTENSION = ".properties";
+    private static final PropertySource[] SOURCES = {PageManager.SOURCE, DatabaseManager.SOURCE, ApplicationManager.SOURCE};
+
+    private static Thread thread;
+    private static WatchService watchService;
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private ConfigurationWatcher() {
+    }
+
+    /**
+     * Starts a daemon thread that watches property files.
+     * Does nothing if the watcher is already started or no file can be watched.
+     */
+    public static synchronized void start() {
+
+        if (thread != null) {
+            return;
+        }
+        Map<Path, PropertySource> sourcesByFile = new HashMap<>();
+        for (PropertySource source : SOURCES) {
+            Path file = findFile(source.getBaseName());
+            if (file != null) {
+                sourcesByFile.put(file, source);
+            }
+        }
+        if (sourcesByFile.isEmpty()) {
+            LOGGER.log(Level.INFO, "no configuration files to watch.");
+            return;
+        }
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            Set<Path> directories = new HashSet<>();
+            for (Path file : sourcesByFile.keySet()) {
+                directories.add(file.getParent());
+            }
+            for (Path directory : directories) {
+                directory.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.ERROR, "can't watch configuration files.", e);
+            closeWatchService();
+            return;
+        }
+
+        WatchService service = watchService;
+        thread = new Thread(() -> watch(service, sourcesByFile), "configuration-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        LOGGER.log(Level.INFO, "configuration files are watched: {}", sourcesByFile.keySet());
+    }
+
+    /**
+     * Stops the watching thread.
+     */
+    public static synchronized void stop() {
+
+        if (thread == null) {
+            return;
+        }
+        closeWatchService();
+        thread.interrupt();
+        thread = null;
+    }
+
+    private static void watch(WatchService service, Map<Path, PropertySource> sourcesByFile) {
+
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = service.take();
+                Path directory = (Path) key.watchable();
+                Set<PropertySource> changed = new HashSet<>();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        continue;
+                    }
+                    PropertySource source = sourcesByFile.get(directory.resolve((Path) event.context()));
+                    if (source != null) {
+                        changed.add(source);
+                    }
+                }
+                changed.forEach(PropertySource::reload);
+                if (!key.reset()) {
+                    LOGGER.log(Level.WARN, "{} can't be watched anymore.", directory);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            LOGGER.log(Level.DEBUG, "configuration watcher is stopped.");
+        }
+    }
+
+    private static Path findFile(String baseName) {
+
+        URL url = ConfigurationWatcher.class.getClassLoader().getResource(baseName.replace('.', '/') + PROPERTIES_EXTENSION);
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return Paths.get(url.toURI()).toAbsolutePath();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            LOGGER.log(Level.WARN, "can't watch " + url, e);
+            return null;
+        }
+    }
+
+    private static void closeWatchService() {
+
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARN, "can't close watch service.", e);
+            }
+            watchService = null;
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.shirey.cafe.manager;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+
+/**
+ * The {@code PropertySource} class
+ * holds values of one property file as an immutable map.
+ * <p>
+ * The map is loaded on the first call (double-checked locking on a volatile field,
+ * so the loaded map is published safely), after that getting a value is a map lookup without locks.
+ * The map can be reloaded at runtime, the new map replaces the old one atomically,
+ * if the file can't be loaded, the old values are kept.
+ * <p>
+ * This class has package-private access level, it is used only by managers.
+ *
+ * @author Alex Shirey
+ */
+
+class PropertySource {
+
+    private static final Logger LOGGER = LogManager.getLogger(PropertySource.class);
+
+    private final String baseName;
+    private volatile Map<String, String> properties;
+
+    /**
+     * @param baseName a base name of the resource bundle, such as {@code resources.configuration.app}
+     */
+    PropertySource(String baseName) {
+        this.baseName = baseName;
+    }
+
+    /**
+     * Gets a string for the given key.
+     *
+     * @param key a key that should be found in the property file.
+     * @return the string for the given key
+     * @throws NullPointerException if <code>key</code> is <code>null</code>
+     * @throws RuntimeException     if no resource bundle for the specified base name can be found or
+     *                              if no object for the given key can be found
+     */
+    String getProperty(String key) {
+
+        String value = getProperties().get(key);
+        if (value == null) {
+            MissingResourceException e = new MissingResourceException("Can't find resource for bundle " + baseName + ", key " + key,
+                    baseName, key);
+            LOGGER.log(Level.ERROR, e.getMessage(), e);
+            throw new RuntimeException("couldn't load resources, no object for the given key can be found", e);
+        }
+        return value;
+    }
+
+    /**
+     * Determines whether the given key is contained in the property file.
+     *
+     * @param key a key that should be found in the property file.
+     * @return {@code true} if the given key is contained, {@code false} otherwise
+     * @throws NullPointerException if <code>key</code> is <code>null</code>
+     * @throws RuntimeException     if no resource bundle for the specified base name can be found
+     */
+    boolean containsKey(String key) {
+        return getProperties().containsKey(key);
+    }
+
+    String getBaseName() {
+        return baseName;
+    }
+
+    /**
+     * Loads the property file again and replaces current values.
+     * If the file can't be loaded, current values are kept.
+     */
+    void reload() {
+
+        try {
+            ResourceBundle.clearCache(Thread.currentThread().getContextClassLoader());
+            ResourceBundle.clearCache(PropertySource.class.getClassLoader());
+            properties = load();
+            LOGGER.log(Level.INFO, "{} was reloaded.", baseName);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.ERROR, "can't reload " + baseName + ", old values are used.", e);
+        }
+    }
+
+    private Map<String, String> getProperties() {
+
+        Map<String, String> result = properties;
+        if (result == null) {
+            synchronized (this) {
+                result = properties;
+                if (result == null) {
+                    result = load();
+                    properties = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @throws RuntimeException if no resource bundle for the specified base name can be found
+     */
+    private Map<String, String> load() {
+
+        ResourceBundle bundle;
+        try {
+            bundle = ResourceBundle.getBundle(baseName);
+        } catch (MissingResourceException e) {
+            LOGGER.log(Level.ERROR, e.getMessage(), e);
+            throw new RuntimeException("couldn't load resources, no resource bundle for the specified base name can be found", e);
+        }
+        Map<String, String> values = new HashMap<>();
+        for (String key : bundle.keySet()) {
+            values.put(key, bundle.getString(key));
+        }
+        return Collections.unmodifiableMap(values);
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.shirey.cafe.tag;
+
+import com.shirey.cafe.util.AssetFingerprint;
+
+import javax.servlet.jsp.JspException;
+import javax.servlet.jsp.JspWriter;
+import javax.servlet.jsp.tagext.TagSupport;
+import java.io.IOException;
+
+/**
+ * The {@code AssetCustomTag} class
+ * is a custom tag that writes url of a static resource (css, js, image)
+ * with the fingerprint of its content, such as {@code /cafe/js/cafe.js?v=3f2a5c0d9e1b}.
+ * <p>
+ * Such urls are cached by browsers for a long time (see {@code StaticResourceCacheFilter}).
+ *
+ * @author Alex Shirey
+ * @see AssetFingerprint
+ */
+
+public class AssetCustomTag extends TagSupport {
+
+    /**
+     * A path of the resource in the application, such as {@code /js/cafe.js}, required attribute.
+     */
+    private String path;
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    @Override
+    public int doStartTag() throws JspException {
+
+        JspWriter out = pageContext.getOut();
+        try {
+            out.write(AssetFingerprint.getVersionedUrl(pageContext.getServletContext(), path));
+        } catch (IOException e) {
+            throw new JspException(e.getMessage());
+        }
+        return SKIP_BODY;
+    }
+
+}
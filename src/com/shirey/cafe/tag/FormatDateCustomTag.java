@@ -4,10 +4,15 @@ import javax.servlet.jsp.JspException;
 import javax.servlet.jsp.JspWriter;
 import javax.servlet.jsp.tagext.TagSupport;
 import java.io.IOException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * The {@code FormatDateCustomTag} class
@@ -22,12 +27,19 @@ import java.util.Locale;
  * <li>ISO 8601 type (default, if a type doesn't match previous one): 2017-12-31 12:48:55</li>
  * </ul>
  * <p>
+ * Formatters are immutable and thread safe, so they are created once for every locale and type
+ * and shared by all tag invocations.
  *
  * @author Alex Shirey
  */
 
 public class FormatDateCustomTag extends TagSupport {
 
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZONE);
+    private static final Map<String, DateTimeFormatter> US_FORMATTERS = createFormatters(Locale.US);
+    private static final Map<String, DateTimeFormatter> RU_FORMATTERS = createFormatters(new Locale("ru", "RU"));
+
     /**
      * A {@code Date} that should be passed to the tag,  required attribute.
      */
@@ -41,43 +53,30 @@ public class FormatDateCustomTag extends TagSupport {
     public int doStartTag() throws JspException {
 
         String localeString = (String) pageContext.getSession().getAttribute("locale");
-        Locale locale;
-
-        if ("ru_RU".equals(localeString)) {
-            locale = new Locale("ru", "RU");
-        } else {
-            locale = Locale.US;
-        }
+        Map<String, DateTimeFormatter> formatters = "ru_RU".equals(localeString) ? RU_FORMATTERS : US_FORMATTERS;
 
-        DateFormat dateFormat = null;
-        SimpleDateFormat simpleDateFormat = null;
         String dateFormatStyle = (String) pageContext.getSession().getAttribute("dateFormatStyle");
-
-        switch (dateFormatStyle) {
-            case "SHORT":
-                dateFormat = DateFormat.getDateInstance(DateFormat.SHORT, locale);
-                break;
-            case "MEDIUM":
-                dateFormat = DateFormat.getDateTimeInstance(DateFormat.MEDIUM, DateFormat.SHORT, locale);
-                break;
-            case "LONG":
-                dateFormat = DateFormat.getDateTimeInstance(DateFormat.LONG, DateFormat.MEDIUM, locale);
-                break;
-            default:
-                simpleDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        DateTimeFormatter formatter = dateFormatStyle != null ? formatters.get(dateFormatStyle) : null;
+        if (formatter == null) {
+            formatter = ISO_FORMATTER;
         }
 
         JspWriter out = pageContext.getOut();
         try {
-            if (dateFormat != null) {
-                out.write(dateFormat.format(date));
-            } else {
-                out.write(simpleDateFormat.format(date));
-            }
+            out.write(formatter.format(Instant.ofEpochMilli(date.getTime())));
         } catch (IOException e) {
             throw new JspException(e.getMessage());
         }
         return SKIP_BODY;
     }
 
+    private static Map<String, DateTimeFormatter> createFormatters(Locale locale) {
+
+        Map<String, DateTimeFormatter> formatters = new HashMap<>();
+        formatters.put("SHORT", DateTimeFormatter.ofLocalizedDate(FormatStyle.SHORT).withLocale(locale).withZone(ZONE));
+        formatters.put("MEDIUM", DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM, FormatStyle.SHORT).withLocale(locale).withZone(ZONE));
+        formatters.put("LONG", DateTimeFormatter.ofLocalizedDateTime(FormatStyle.LONG, FormatStyle.MEDIUM).withLocale(locale).withZone(ZONE));
+        return Collections.unmodifiableMap(formatters);
+    }
+
 }
@@ -0,0 +1,142 @@
+package com.shirey.cafe.tag;
+
+import javax.servlet.jsp.JspException;
+import javax.servlet.jsp.tagext.BodyTagSupport;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code FragmentCacheCustomTag} class
+ * is a custom tag that caches the rendered body (a page fragment) and
+ * writes the cached value instead of evaluating the body again.
+ * <p>
+ * A fragment is cached by its name, the session locale, the variant (for example role or date format style,
+ * if the fragment depends on them) and the version of the data that is shown in the fragment.
+ * When a fragment with a newer version is rendered, all older versions of this fragment are removed,
+ * fragments with a version older than the known one are not cached.
+ * If the version is not defined or the tag is not enabled, the body is evaluated as usual.
+ *
+ * @author Alex Shirey
+ */
+
+public class FragmentCacheCustomTag extends BodyTagSupport {
+
+    private static final int MAX_FRAGMENTS = 64;
+    private static final char KEY_SEPARATOR = '|';
+    private static final Map<String, String> FRAGMENTS = new ConcurrentHashMap<>();
+    private static final Map<String, Long> LATEST_VERSIONS = new ConcurrentHashMap<>();
+
+    /**
+     * A name of the fragment, required attribute.
+     */
+    private String name;
+
+    /**
+     * A version of the data that is shown in the fragment, required attribute (can be null).
+     */
+    private Long version;
+
+    /**
+     * A variant of the fragment, optional attribute.
+     */
+    private String variant = "";
+
+    /**
+     * {@code true} if the fragment can be cached, optional attribute.
+     */
+    private boolean enabled = true;
+
+    private String key;
+
+    /**
+     * {@code true} if the body is buffered by the current use of the tag.
+     * Tag handlers are pooled and the body content of the previous use is not cleared,
+     * so the body content is used only if this flag is set.
+     */
+    private boolean buffered;
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public void setVariant(String variant) {
+        this.variant = variant;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public int doStartTag() throws JspException {
+
+        key = null;
+        buffered = false;
+        if (!enabled || version == null || version < LATEST_VERSIONS.getOrDefault(name, Long.MIN_VALUE)) {
+            buffered = true;
+            return EVAL_BODY_BUFFERED;
+        }
+        String locale = (String) pageContext.getSession().getAttribute("locale");
+        key = name + KEY_SEPARATOR + locale + KEY_SEPARATOR + variant + KEY_SEPARATOR + version;
+
+        String fragment = FRAGMENTS.get(key);
+        if (fragment == null) {
+            buffered = true;
+            return EVAL_BODY_BUFFERED;
+        }
+        try {
+            pageContext.getOut().write(fragment);
+        } catch (IOException e) {
+            throw new JspException(e.getMessage());
+        }
+        return SKIP_BODY;
+    }
+
+    /**
+     * Writes the buffered body and caches it if the key is defined.
+     * Does nothing if the cached fragment was written by {@link #doStartTag()}.
+     * Clears the body content and the key, so the pooled tag handler doesn't keep them.
+     */
+    @Override
+    public int doEndTag() throws JspException {
+
+        try {
+            if (!buffered || bodyContent == null) {
+                return EVAL_PAGE;
+            }
+            String fragment = bodyContent.getString();
+            if (key != null) {
+                put(fragment);
+            }
+            bodyContent.getEnclosingWriter().write(fragment);
+        } catch (IOException e) {
+            throw new JspException(e.getMessage());
+        } finally {
+            bodyContent = null;
+            key = null;
+            buffered = false;
+        }
+        return EVAL_PAGE;
+    }
+
+    private void put(String fragment) {
+
+        Long latest = LATEST_VERSIONS.merge(name, version, Math::max);
+        if (!latest.equals(version)) {
+            return;
+        }
+        String prefix = name + KEY_SEPARATOR;
+        String suffix = KEY_SEPARATOR + version.toString();
+        FRAGMENTS.keySet().removeIf(cachedKey -> cachedKey.startsWith(prefix) && !cachedKey.endsWith(suffix));
+        if (FRAGMENTS.size() >= MAX_FRAGMENTS) {
+            FRAGMENTS.clear();
+        }
+        FRAGMENTS.put(key, fragment);
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.shirey.cafe.tag;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code MessageTemplate} class
+ * is a message from a resource bundle, parsed once into text parts and argument indexes,
+ * such as {@code You logged in as {0}, your name is {1}}.
+ * <p>
+ * The message is written directly to a {@code Writer}, no Strings are created.
+ * Only simple placeholders {0}-{9} are supported (no formats, no quoting).
+ * <p>
+ * This class has package-private access level, it is used only by custom tags.
+ * Immutable.
+ *
+ * @author Alex Shirey
+ */
+
+class MessageTemplate {
+
+    private final String[] parts;
+    private final int[] argumentIndexes;
+
+    /**
+     * Parses the message.
+     *
+     * @param message a message with placeholders
+     */
+    MessageTemplate(String message) {
+
+        List<String> textParts = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i + 2 < message.length(); i++) {
+            char digit = message.charAt(i + 1);
+            if (message.charAt(i) == '{' && digit >= '0' && digit <= '9' && message.charAt(i + 2) == '}') {
+                textParts.add(message.substring(start, i));
+                indexes.add(digit - '0');
+                start = i + 3;
+                i += 2;
+            }
+        }
+        textParts.add(message.substring(start));
+
+        parts = textParts.toArray(new String[0]);
+        argumentIndexes = new int[indexes.size()];
+        for (int i = 0; i < argumentIndexes.length; i++) {
+            argumentIndexes[i] = indexes.get(i);
+        }
+    }
+
+    /**
+     * Writes the message without arguments.
+     *
+     * @param out a writer
+     * @throws IOException if an I/O error occurs
+     */
+    void writeTo(Writer out) throws IOException {
+        writeTo(out, null, null);
+    }
+
+    /**
+     * Writes the message, placeholders {0} and {1} are replaced with the arguments,
+     * other placeholders are skipped.
+     *
+     * @param out    a writer
+     * @param first  the first argument
+     * @param second the second argument
+     * @throws IOException if an I/O error occurs
+     */
+    void writeTo(Writer out, String first, String second) throws IOException {
+
+        for (int i = 0; i < argumentIndexes.length; i++) {
+            out.write(parts[i]);
+            String argument = argumentIndexes[i] == 0 ? first : argumentIndexes[i] == 1 ? second : null;
+            if (argument != null) {
+                out.write(argument);
+            }
+        }
+        out.write(parts[parts.length - 1]);
+    }
+
+}
@@ -1,11 +1,16 @@
 package com.shirey.cafe.tag;
 
 import com.shirey.cafe.entity.User;
+import com.shirey.cafe.entity.UserRole;
 
 import javax.servlet.jsp.JspException;
 import javax.servlet.jsp.JspWriter;
 import javax.servlet.jsp.tagext.TagSupport;
 import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
 
 /**
  * The {@code UserInfoCustomTag} class
@@ -13,49 +18,59 @@ import java.io.IOException;
  * If a user is not logged in, the tag shows this information.
  * Supports two languages, en and ru (locale is taken from user session).
  * <p>
- * Output is a {@code String}
+ * Messages are loaded once from the pagecontent resource bundles and written
+ * directly to the {@code JspWriter}.
  *
  * @author Alex Shirey
  */
 
 public class UserInfoCustomTag extends TagSupport {
 
+    private static final String BUNDLE_NAME = "resources.pagecontent";
+    private static final String RU_LOCALE = "ru_RU";
+    private static final Messages EN_MESSAGES = new Messages(Locale.US);
+    private static final Messages RU_MESSAGES = new Messages(new Locale("ru", "RU"));
+    private static final Map<UserRole, String> ROLE_NAMES = new EnumMap<>(UserRole.class);
+
+    static {
+        for (UserRole role : UserRole.values()) {
+            ROLE_NAMES.put(role, role.name().toLowerCase());
+        }
+    }
+
     @Override
     public int doStartTag() throws JspException {
 
         User user = (User) pageContext.getSession().getAttribute("user");
         String locale = (String) pageContext.getSession().getAttribute("locale");
-        String loggedFirst;
-        String loggedSecond;
-        String notLoggedIn;
-
-        String info;
-
-        switch (locale) {
-            case ("ru_RU"):
-                loggedFirst = "Вы авторизированы как ";
-                loggedSecond = ", Ваше имя ";
-                notLoggedIn = "Вы не авторизированы, гость. Пожалуйста, войдите.";
-                break;
-            default:
-                loggedFirst = "You logged in as ";
-                loggedSecond = ", your name is ";
-                notLoggedIn = "You are not logged in, guest. Please, log in.";
-        }
-
-        if (user != null) {
-            info = loggedFirst + user.getRole().name().toLowerCase() + loggedSecond + user.getFirstName();
-        } else {
-            info = notLoggedIn;
-        }
+        Messages messages = RU_LOCALE.equals(locale) ? RU_MESSAGES : EN_MESSAGES;
 
         JspWriter out = pageContext.getOut();
         try {
-            out.write(info);
+            if (user != null) {
+                messages.loggedIn.writeTo(out, ROLE_NAMES.get(user.getRole()), user.getFirstName());
+            } else {
+                messages.notLoggedIn.writeTo(out);
+            }
         } catch (IOException e) {
             throw new JspException(e.getMessage());
         }
         return SKIP_BODY;
     }
 
+    /**
+     * Templates of one locale.
+     */
+    private static class Messages {
+
+        private final MessageTemplate loggedIn;
+        private final MessageTemplate notLoggedIn;
+
+        private Messages(Locale locale) {
+            ResourceBundle bundle = ResourceBundle.getBundle(BUNDLE_NAME, locale);
+            loggedIn = new MessageTemplate(bundle.getString("userInfo.loggedIn"));
+            notLoggedIn = new MessageTemplate(bundle.getString("userInfo.notLoggedIn"));
+        }
+    }
+
 }
@@ -0,0 +1,104 @@
+package com.shirey.cafe.util;
+
+import javax.servlet.ServletContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code AssetFingerprint} class contains methods that
+ * define fingerprints (content hashes) of static resources (css, js, images).
+ * <p>
+ * A fingerprint is added to the resource url, so the url changes only when the content changes
+ * and browsers can cache the resource without revalidation.
+ * Fingerprints are computed once for each resource (resources are not changed without redeploy).
+ * Paths come from requests, so only fingerprints of existing resources are cached and the amount of cached
+ * fingerprints is bounded, fingerprints of other paths are computed every time.
+ *
+ * @author Alex Shirey
+ */
+
+public class AssetFingerprint {
+
+    /**
+     * The name of the request parameter that contains a fingerprint.
+     */
+    public static final String VERSION_PARAMETER = "v";
+
+    private static final int FINGERPRINT_LENGTH = 12;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_FINGERPRINTS = 1024;
+    private static final String NO_FINGERPRINT = "";
+    private static final Map<String, String> FINGERPRINTS = new ConcurrentHashMap<>();
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private AssetFingerprint() {
+    }
+
+    /**
+     * Returns a fingerprint of the resource.
+     *
+     * @param context a servlet context of the application
+     * @param path    a path of the resource in the application, such as {@code /css/bootstrap.min.css}
+     * @return a fingerprint (hex value), or empty {@code String} if no resource is found
+     */
+    public static String getFingerprint(ServletContext context, String path) {
+
+        String fingerprint = FINGERPRINTS.get(path);
+        if (fingerprint != null) {
+            return fingerprint;
+        }
+        fingerprint = computeFingerprint(context, path);
+        if (!fingerprint.isEmpty() && FINGERPRINTS.size() < MAX_FINGERPRINTS) {
+            FINGERPRINTS.putIfAbsent(path, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    static int size() {
+        return FINGERPRINTS.size();
+    }
+
+    /**
+     * Returns the url of the resource with its fingerprint, such as {@code /cafe/css/bootstrap.min.css?v=3f2a...}.
+     *
+     * @param context a servlet context of the application
+     * @param path    a path of the resource in the application
+     * @return the url with context path and fingerprint, or without fingerprint if no resource is found
+     */
+    public static String getVersionedUrl(ServletContext context, String path) {
+
+        String fingerprint = getFingerprint(context, path);
+        String url = context.getContextPath() + path;
+        return fingerprint.isEmpty() ? url : url + "?" + VERSION_PARAMETER + "=" + fingerprint;
+    }
+
+    private static String computeFingerprint(ServletContext context, String path) {
+
+        try (InputStream in = context.getResourceAsStream(path)) {
+            if (in == null) {
+                return NO_FINGERPRINT;
+            }
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            StringBuilder hex = new StringBuilder(FINGERPRINT_LENGTH);
+            byte[] hash = digest.digest();
+            for (int i = 0; hex.length() < FINGERPRINT_LENGTH; i++) {
+                hex.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            return NO_FINGERPRINT;
+        }
+    }
+
+}
@@ -7,6 +7,8 @@ import java.util.regex.Pattern;
  * validating an input data (data from forms).
  * <p>
  * All represented methods in this class are static.
+ * Patterns are compiled once, simple formats (password, phone, number)
+ * are checked by hand-written single pass validators.
  *
  * @author Alex Shirey
  */
@@ -14,33 +16,31 @@ import java.util.regex.Pattern;
 public class InputDataValidator {
 
     /**
-     * The {@code String} value that is pattern for login.
+     * Pattern for login.
      */
-    private static final String LOGIN_PATTERN = "[a-z0-9._%+-]{1,20}@[a-z0-9.-]{1,16}\\.[a-z]{2,3}";
+    private static final Pattern LOGIN_PATTERN = Pattern.compile("[a-z0-9._%+-]{1,20}@[a-z0-9.-]{1,16}\\.[a-z]{2,3}");
     /**
-     * The {@code String} value that is pattern for password.
+     * Pattern for names - first name, last name.
      */
-    private static final String PASSWORD_PATTERN = "(?=.*\\d)(?=.*[a-z])(?=.*[A-Z]).{6,30}";
+    private static final Pattern NAME_PATTERN = Pattern.compile("[A-Z][a-z]{1,19}|[А-ЯЁ][а-яё]{1,19}");
     /**
-     * The {@code String} value that is pattern for names - first name, last name.
+     * Pattern for dish name.
      */
-    private static final String NAME_PATTERN = "[A-Z][a-z]{1,19}|[А-ЯЁ][а-яё]{1,19}";
+    private static final Pattern DISH_NAME_PATTERN = Pattern.compile("[A-ZА-ЯЁa-zа-яё\\d ]{2,50}");
     /**
-     * The {@code String} value that is pattern for user phone.
+     * Pattern for description.
      */
-    private static final String PHONE_PATTERN = "[+]\\d{3}[(]\\d{2}[)]\\d{3}[-]\\d{2}[-]\\d{2}";
+    private static final Pattern DISH_DESCRIPTION_PATTERN = Pattern.compile("[A-ZА-ЯЁ].{4,200}");
     /**
-     * The {@code String} value that is pattern for positive numbers.
+     * Template for user phone, such as {@code +375(29)612-61-09}, where '0' means any digit.
      */
-    private static final String NUMBER_PATTERN = "\\d+(\\.\\d+)?";
+    private static final String PHONE_TEMPLATE = "+000(00)000-00-00";
     /**
-     * The {@code String} value that is pattern for dish name.
+     * Min and max length of password. Password should contain at least one digit,
+     * one lower case and one upper case latin letter, line terminators are not allowed.
      */
-    private static final String DISH_NAME_PATTERN = "[A-ZА-ЯЁa-zа-яё\\d ]{2,50}";
-    /**
-     * The {@code String} value that is pattern for description.
-     */
-    private static final String DISH_DESCRIPTION_PATTERN = "[A-ZА-ЯЁ].{4,200}";
+    private static final int PASSWORD_MIN_LENGTH = 6;
+    private static final int PASSWORD_MAX_LENGTH = 30;
 
     /**
      * Don't let anyone instantiate this class.
@@ -58,7 +58,7 @@ public class InputDataValidator {
      */
     public static boolean validateLoginForm(String login, String password) {
 
-        return Pattern.matches(LOGIN_PATTERN, login) && Pattern.matches(PASSWORD_PATTERN, password);
+        return LOGIN_PATTERN.matcher(login).matches() && validatePassword(password);
     }
 
     /**
@@ -74,19 +74,19 @@ public class InputDataValidator {
      */
     public static boolean validateRegistrationForm(String login, String password, String firstName, String lastName, String phone) {
 
-        if (!Pattern.matches(LOGIN_PATTERN, login)) {
+        if (!LOGIN_PATTERN.matcher(login).matches()) {
             return false;
         }
-        if (!Pattern.matches(PASSWORD_PATTERN, password)) {
+        if (!validatePassword(password)) {
             return false;
         }
-        if (!Pattern.matches(NAME_PATTERN, firstName)) {
+        if (!NAME_PATTERN.matcher(firstName).matches()) {
             return false;
         }
-        if (!Pattern.matches(NAME_PATTERN, lastName)) {
+        if (!NAME_PATTERN.matcher(lastName).matches()) {
             return false;
         }
-        return Pattern.matches(PHONE_PATTERN, phone);
+        return validatePhone(phone);
     }
 
     /**
@@ -101,10 +101,10 @@ public class InputDataValidator {
      */
     public static boolean validateAddDishForm(String name, String description, String price) {
 
-        if (!Pattern.matches(DISH_NAME_PATTERN, name)) {
+        if (!DISH_NAME_PATTERN.matcher(name).matches()) {
             return false;
         }
-        if (!description.isEmpty() && !Pattern.matches(DISH_DESCRIPTION_PATTERN, description)) {
+        if (!description.isEmpty() && !DISH_DESCRIPTION_PATTERN.matcher(description).matches()) {
             return false;
         }
         return isPositiveNumber(price);
@@ -121,7 +121,7 @@ public class InputDataValidator {
      */
     public static boolean validateEditDishForm(String description, String price) {
 
-        if (!description.isEmpty() && !Pattern.matches(DISH_DESCRIPTION_PATTERN, description)) {
+        if (!description.isEmpty() && !DISH_DESCRIPTION_PATTERN.matcher(description).matches()) {
             return false;
         }
         return isPositiveNumber(price);
@@ -135,7 +135,32 @@ public class InputDataValidator {
      * otherwise {@code false}
      */
     public static boolean validatePassword(String password) {
-        return Pattern.matches(PASSWORD_PATTERN, password);
+
+        int length = password.length();
+        if (length < PASSWORD_MIN_LENGTH || length > PASSWORD_MAX_LENGTH * 2) {
+            return false;
+        }
+        boolean hasDigit = false;
+        boolean hasLowerCase = false;
+        boolean hasUpperCase = false;
+        for (int i = 0; i < length; i++) {
+            char c = password.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return false;
+            }
+            if (c >= '0' && c <= '9') {
+                hasDigit = true;
+            } else if (c >= 'a' && c <= 'z') {
+                hasLowerCase = true;
+            } else if (c >= 'A' && c <= 'Z') {
+                hasUpperCase = true;
+            }
+        }
+        if (!hasDigit || !hasLowerCase || !hasUpperCase) {
+            return false;
+        }
+        int codePoints = password.codePointCount(0, length);
+        return codePoints >= PASSWORD_MIN_LENGTH && codePoints <= PASSWORD_MAX_LENGTH;
     }
 
     /**
@@ -146,7 +171,7 @@ public class InputDataValidator {
      * otherwise {@code false}
      */
     public static boolean validateName(String name) {
-        return Pattern.matches(NAME_PATTERN, name);
+        return NAME_PATTERN.matcher(name).matches();
     }
 
     /**
@@ -157,7 +182,18 @@ public class InputDataValidator {
      * otherwise {@code false}
      */
     public static boolean validatePhone(String phone) {
-        return Pattern.matches(PHONE_PATTERN, phone);
+
+        if (phone.length() != PHONE_TEMPLATE.length()) {
+            return false;
+        }
+        for (int i = 0; i < PHONE_TEMPLATE.length(); i++) {
+            char expected = PHONE_TEMPLATE.charAt(i);
+            char c = phone.charAt(i);
+            if (expected == '0' ? c < '0' || c > '9' : c != expected) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -169,7 +205,7 @@ public class InputDataValidator {
      */
     public static boolean isPositiveNumber(String value) {
 
-        return Pattern.matches(NUMBER_PATTERN, value) && Double.parseDouble(value) > 0;
+        return isNumber(value) && Double.parseDouble(value) > 0;
     }
 
     /**
@@ -181,6 +217,41 @@ public class InputDataValidator {
      */
     public static boolean isPositiveNumberOrZero(String value) {
 
-        return Pattern.matches(NUMBER_PATTERN, value) && Double.parseDouble(value) >= 0;
+        return isNumber(value) && Double.parseDouble(value) >= 0;
+    }
+
+    /**
+     * Checks if the value consists of digits with an optional fractional part, such as {@code 3.50}.
+     *
+     * @param value a value.
+     * @return {@code true} if a value is a number without sign,
+     * otherwise {@code false}
+     */
+    private static boolean isNumber(String value) {
+
+        int length = value.length();
+        int i = 0;
+        while (i < length && isDigit(value.charAt(i))) {
+            i++;
+        }
+        if (i == 0) {
+            return false;
+        }
+        if (i == length) {
+            return true;
+        }
+        if (value.charAt(i) != '.' || i == length - 1) {
+            return false;
+        }
+        for (i++; i < length; i++) {
+            if (!isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package com.shirey.cafe.util;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
-
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Date;
 
 /**
@@ -10,6 +12,9 @@ import java.util.Date;
  * parses a {@code String} value of {@code LocalDateTime} class object
  * (such as {@code 2007-12-03T10:15})
  * to a {@code Date}.
+ * <p>
+ * The formatter is immutable, so the class is thread safe and can be used
+ * by all request threads without synchronization.
  *
  * @author Alex Shirey
  * @see java.time.LocalDateTime#toString()
@@ -18,10 +23,9 @@ import java.util.Date;
 public class LocalDateTimeParser {
 
     /**
-     * Pattern for ISO-8601 formats, such as {@code 2007-12-03T10:15}.
+     * Formatter for ISO-8601 formats, such as {@code 2007-12-03T10:15} or {@code 2007-12-03T10:15:30}.
      */
-    private static final String LOCALE_DATE_TIME_MINUTES_PATTERN = "yyyy-MM-dd'T'HH:mm";
-    private static SimpleDateFormat simpleDateFormat = new SimpleDateFormat(LOCALE_DATE_TIME_MINUTES_PATTERN);
+    private static final DateTimeFormatter LOCAL_DATE_TIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
     /**
      * Don't let anyone instantiate this class.
@@ -30,16 +34,27 @@ public class LocalDateTimeParser {
     }
 
     /**
-     * Parses text from the beginning of the given string to produce a date.
+     * Parses the given string to produce a date in the system default time zone.
      *
      * @param localeDateTime A <code>String</code> value that should be parsed.
      * @return A {@code Date} parsed from the string.
-     * @throws ParseException if the value cannot be parsed.
-     * @see java.text.SimpleDateFormat#parse(String)
+     * @throws ParseException if the value is null or cannot be parsed.
+     * @see java.time.LocalDateTime#parse(CharSequence, DateTimeFormatter)
      */
     public static Date parseLdtStringToDate(String localeDateTime) throws ParseException {
 
-        return simpleDateFormat.parse(localeDateTime);
+        if (localeDateTime == null) {
+            throw new ParseException("value is null", 0);
+        }
+        LocalDateTime localDateTime;
+        try {
+            localDateTime = LocalDateTime.parse(localeDateTime, LOCAL_DATE_TIME_FORMATTER);
+        } catch (DateTimeParseException e) {
+            ParseException parseException = new ParseException(e.getMessage(), e.getErrorIndex());
+            parseException.initCause(e);
+            throw parseException;
+        }
+        return Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant());
     }
 
-}
\ No newline at end of file
+}
@@ -16,10 +16,25 @@ public class CommandFactoryTest {
         Assert.assertEquals(actual, expected);
     }
 
+    @Test
+    public void testDefineCommandIgnoreCase() throws UnsupportedCommandException {
+
+        Command expected = CommandType.SHOW_MENU.getCommand();
+        Assert.assertSame(CommandFactory.defineCommand("show_menu"), expected);
+        Assert.assertSame(CommandFactory.defineCommand("SHOW_MENU"), expected);
+        Assert.assertSame(CommandFactory.defineCommand("Show_Menu"), expected);
+    }
+
     @Test (expectedExceptions = UnsupportedCommandException.class)
     public void testDefineCommandException() throws UnsupportedCommandException {
 
         CommandFactory.defineCommand("bla bla bla");
     }
 
+    @Test (expectedExceptions = UnsupportedCommandException.class)
+    public void testDefineCommandEmptyException() throws UnsupportedCommandException {
+
+        CommandFactory.defineCommand("");
+    }
+
 }
\ No newline at end of file
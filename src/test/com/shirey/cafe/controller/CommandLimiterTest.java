@@ -0,0 +1,47 @@
+package com.shirey.cafe.controller;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+
+public class CommandLimiterTest {
+
+    @Test
+    public void testTryAcquire() {
+
+        CommandLimiter limiter = new CommandLimiter(2, false, 500);
+        Assert.assertTrue(limiter.tryAcquire());
+        Assert.assertTrue(limiter.tryAcquire());
+        Assert.assertFalse(limiter.tryAcquire());
+        limiter.release(System.nanoTime());
+        Assert.assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testDecreaseLimit() {
+
+        CommandLimiter limiter = new CommandLimiter(8, true, 500);
+        limiter.tryAcquire();
+        limiter.release(System.nanoTime() - TimeUnit.SECONDS.toNanos(1));
+        Assert.assertEquals(limiter.getLimit(), 6);
+        Assert.assertEquals(limiter.getInFlight(), 0);
+    }
+
+    @Test
+    public void testNotAdaptive() {
+
+        CommandLimiter limiter = new CommandLimiter(8, false, 500);
+        limiter.tryAcquire();
+        limiter.release(System.nanoTime() - TimeUnit.SECONDS.toNanos(1));
+        Assert.assertEquals(limiter.getLimit(), 8);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testLimitException() {
+
+        new CommandLimiter(0, true, 500);
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.shirey.cafe.dao;
+
+import com.shirey.cafe.entity.User;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+
+
+public class UserCacheTest {
+
+    private static final long TIME_TO_LIVE = 100;
+
+    private long now;
+    private UserCache cache;
+
+    @BeforeMethod
+    public void setUp() {
+        now = 0;
+        cache = new UserCache(2, TIME_TO_LIVE, () -> now);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+
+        cache.put(createUser(1), cache.getGeneration());
+        cache.put(createUser(2), cache.getGeneration());
+        cache.get(1);
+        cache.put(createUser(3), cache.getGeneration());
+        Assert.assertEquals(cache.getEvictionCount(), 1);
+        Assert.assertNotNull(cache.get(1));
+        Assert.assertNull(cache.get(2));
+        Assert.assertNotNull(cache.get(3));
+    }
+
+    @Test
+    public void testExpiredUserIsNotReturned() {
+
+        cache.put(createUser(1), cache.getGeneration());
+        now = TIME_TO_LIVE + 1;
+        Assert.assertNull(cache.get(1));
+        Assert.assertEquals(cache.getExpirationCount(), 1);
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void testInvalidate() {
+
+        cache.put(createUser(1), cache.getGeneration());
+        cache.invalidate(1);
+        Assert.assertNull(cache.get(1));
+    }
+
+    @Test
+    public void testUserLoadedBeforeInvalidationIsNotPut() {
+
+        long generation = cache.getGeneration();
+        cache.invalidate(1);
+        cache.put(createUser(1), generation);
+        Assert.assertNull(cache.get(1));
+    }
+
+    @Test
+    public void testInvalidationOfOtherUserDoesNotPreventPut() {
+
+        long generation = cache.getGeneration();
+        cache.invalidate(2);
+        cache.put(createUser(1), generation);
+        Assert.assertNotNull(cache.get(1));
+    }
+
+    @Test
+    public void testReturnedUserIsCopy() {
+
+        cache.put(createUser(1), cache.getGeneration());
+        cache.get(1).getAccount().setBalance(BigDecimal.ZERO);
+        Assert.assertEquals(cache.get(1).getAccount().getBalance(), BigDecimal.TEN);
+    }
+
+    @Test
+    public void testHitRatio() {
+
+        cache.put(createUser(1), cache.getGeneration());
+        cache.get(1);
+        cache.get(2);
+        Assert.assertEquals(cache.getHitRatio(), 0.5);
+    }
+
+    private static User createUser(int userId) {
+        User user = new User();
+        user.setUserId(userId);
+        user.getAccount().setBalance(BigDecimal.TEN);
+        return user;
+    }
+
+}
@@ -48,6 +48,36 @@ public class ConnectionPoolTest {
     }
 
 
+    @Test
+    public void testUnitOfWorkReusesConnection() throws Exception {
+
+        ProxyConnection connection;
+        try (UnitOfWork unitOfWork = UnitOfWork.begin(true)) {
+            connection = ConnectionPool.getInstance().getConnection();
+            connection.setAutoCommit(true);
+            connection.close();
+            Assert.assertSame(ConnectionPool.getInstance().getConnection(), connection);
+            Assert.assertFalse(connection.getAutoCommit());
+            unitOfWork.commit();
+        }
+        Assert.assertTrue(connection.getAutoCommit());
+        Assert.assertNull(UnitOfWork.current());
+    }
+
+
+    @Test
+    public void testNonTransactionalUnitOfWorkReturnsConnections() throws Exception {
+
+        try (UnitOfWork unitOfWork = UnitOfWork.begin(false)) {
+            for (int i = 0; i < poolSize + 1; i++) {
+                ProxyConnection connection = ConnectionPool.getInstance().getConnection();
+                connection.close();
+            }
+            unitOfWork.commit();
+        }
+    }
+
+
     @AfterTest
     public void releaseAndCloseConnection() throws Exception {
 
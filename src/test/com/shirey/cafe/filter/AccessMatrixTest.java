@@ -0,0 +1,56 @@
+package com.shirey.cafe.filter;
+
+import com.shirey.cafe.command.CommandType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class AccessMatrixTest {
+
+    @Test
+    public void testDefineRole() {
+
+        Assert.assertEquals(AccessMatrix.defineRole("admin"), AccessMatrix.Role.ADMIN);
+        Assert.assertEquals(AccessMatrix.defineRole("customer"), AccessMatrix.Role.CUSTOMER);
+        Assert.assertEquals(AccessMatrix.defineRole(null), AccessMatrix.Role.GUEST);
+        Assert.assertEquals(AccessMatrix.defineRole("root"), AccessMatrix.Role.GUEST);
+    }
+
+    @Test
+    public void testEveryCommandIsInMatrix() {
+
+        for (CommandType type : CommandType.values()) {
+            boolean anyone = false;
+            for (AccessMatrix.Role role : AccessMatrix.Role.values()) {
+                anyone |= AccessMatrix.isAllowed(role, type);
+            }
+            Assert.assertTrue(anyone, type.name());
+        }
+    }
+
+    @Test
+    public void testCommands() {
+
+        Assert.assertTrue(AccessMatrix.isAllowed(AccessMatrix.Role.GUEST, CommandType.SHOW_MENU));
+        Assert.assertTrue(AccessMatrix.isAllowed(AccessMatrix.Role.GUEST, CommandType.LOGIN));
+        Assert.assertFalse(AccessMatrix.isAllowed(AccessMatrix.Role.ADMIN, CommandType.LOGIN));
+        Assert.assertFalse(AccessMatrix.isAllowed(AccessMatrix.Role.GUEST, CommandType.LOGOUT));
+        Assert.assertTrue(AccessMatrix.isAllowed(AccessMatrix.Role.CUSTOMER, CommandType.CONFIRM_ORDER));
+        Assert.assertFalse(AccessMatrix.isAllowed(AccessMatrix.Role.ADMIN, CommandType.CONFIRM_ORDER));
+        Assert.assertTrue(AccessMatrix.isAllowed(AccessMatrix.Role.ADMIN, CommandType.EDIT_USER));
+        Assert.assertFalse(AccessMatrix.isAllowed(AccessMatrix.Role.CUSTOMER, CommandType.EDIT_USER));
+    }
+
+    @Test
+    public void testPackages() {
+
+        Assert.assertTrue(AccessMatrix.isAllowed(AccessMatrix.Role.GUEST, "guest"));
+        Assert.assertFalse(AccessMatrix.isAllowed(AccessMatrix.Role.CUSTOMER, "guest"));
+        Assert.assertFalse(AccessMatrix.isAllowed(AccessMatrix.Role.GUEST, "user"));
+        Assert.assertFalse(AccessMatrix.isAllowed(AccessMatrix.Role.CUSTOMER, "admin"));
+        Assert.assertTrue(AccessMatrix.isAllowed(AccessMatrix.Role.ADMIN, "service"));
+        Assert.assertTrue(AccessMatrix.isAllowed(AccessMatrix.Role.GUEST, (String) null));
+        Assert.assertTrue(AccessMatrix.isAllowed(AccessMatrix.Role.GUEST, "error"));
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.shirey.cafe.filter;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+
+public class CompressionResponseWrapperTest {
+
+    private static final int THRESHOLD = 64;
+    private static final String BIG_BODY = new String(new char[500]).replace('\0', 'a');
+
+    private DeflaterPool deflaterPool;
+    private ByteArrayOutputStream sent;
+    private Map<String, String> headers;
+    private int status;
+    private HttpServletResponse response;
+
+    @BeforeMethod
+    public void setUp() {
+        deflaterPool = new DeflaterPool(6, 2);
+        sent = new ByteArrayOutputStream();
+        headers = new HashMap<>();
+        status = HttpServletResponse.SC_OK;
+        headers.put("Content-Type", "text/html");
+        response = createResponse();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        deflaterPool.close();
+    }
+
+    @Test
+    public void testBigTextBodyIsCompressed() throws IOException {
+        CompressionResponseWrapper wrapper = new CompressionResponseWrapper(response, deflaterPool, THRESHOLD);
+        writeAndFinish(wrapper, BIG_BODY);
+        Assert.assertEquals(headers.get("Content-Encoding"), "gzip");
+        Assert.assertEquals(gunzip(sent.toByteArray()), BIG_BODY);
+    }
+
+    @Test
+    public void testSmallBodyIsSentAsIs() throws IOException {
+        CompressionResponseWrapper wrapper = new CompressionResponseWrapper(response, deflaterPool, THRESHOLD);
+        writeAndFinish(wrapper, "small");
+        Assert.assertNull(headers.get("Content-Encoding"));
+        Assert.assertEquals(headers.get("Content-Length"), "5");
+        Assert.assertEquals(new String(sent.toByteArray(), StandardCharsets.UTF_8), "small");
+    }
+
+    @Test
+    public void testImageIsNotCompressed() throws IOException {
+        headers.put("Content-Type", "image/png");
+        CompressionResponseWrapper wrapper = new CompressionResponseWrapper(response, deflaterPool, THRESHOLD);
+        writeAndFinish(wrapper, BIG_BODY);
+        Assert.assertNull(headers.get("Content-Encoding"));
+        Assert.assertEquals(new String(sent.toByteArray(), StandardCharsets.UTF_8), BIG_BODY);
+    }
+
+    @Test
+    public void testPartialContentIsNotCompressed() throws IOException {
+        status = HttpServletResponse.SC_PARTIAL_CONTENT;
+        headers.put("Content-Range", "bytes 0-499/1000");
+        CompressionResponseWrapper wrapper = new CompressionResponseWrapper(response, deflaterPool, THRESHOLD);
+        writeAndFinish(wrapper, BIG_BODY);
+        Assert.assertNull(headers.get("Content-Encoding"));
+        Assert.assertEquals(new String(sent.toByteArray(), StandardCharsets.UTF_8), BIG_BODY);
+    }
+
+    @Test
+    public void testResetBufferBeforeDecisionDropsBody() throws IOException {
+        CompressionResponseWrapper wrapper = new CompressionResponseWrapper(response, deflaterPool, THRESHOLD);
+        PrintWriter writer = wrapper.getWriter();
+        writer.write("dropped");
+        writer.flush();
+        wrapper.resetBuffer();
+        writer.write("kept");
+        wrapper.finish();
+        Assert.assertEquals(new String(sent.toByteArray(), StandardCharsets.UTF_8), "kept");
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testResetAfterCompressionStartedThrows() throws IOException {
+        CompressionResponseWrapper wrapper = new CompressionResponseWrapper(response, deflaterPool, THRESHOLD);
+        try {
+            wrapper.getOutputStream().write(BIG_BODY.getBytes(StandardCharsets.UTF_8));
+            wrapper.reset();
+        } finally {
+            wrapper.release();
+        }
+    }
+
+    @Test
+    public void testWrapperIsCommittedAfterThreshold() throws IOException {
+        CompressionResponseWrapper wrapper = new CompressionResponseWrapper(response, deflaterPool, THRESHOLD);
+        try {
+            wrapper.getOutputStream().write("small".getBytes(StandardCharsets.UTF_8));
+            Assert.assertFalse(wrapper.isCommitted());
+            wrapper.getOutputStream().write(BIG_BODY.getBytes(StandardCharsets.UTF_8));
+            Assert.assertTrue(wrapper.isCommitted());
+        } finally {
+            wrapper.release();
+        }
+    }
+
+    private void writeAndFinish(CompressionResponseWrapper wrapper, String body) throws IOException {
+        try {
+            wrapper.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+            wrapper.finish();
+        } finally {
+            wrapper.release();
+        }
+    }
+
+    private String gunzip(byte[] compressed) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] buffer = new byte[256];
+            int length;
+            while ((length = in.read(buffer)) > 0) {
+                result.write(buffer, 0, length);
+            }
+        }
+        return new String(result.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a response that keeps headers and status in the test fields and sends the body to {@code sent}.
+     */
+    private HttpServletResponse createResponse() {
+
+        ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                sent.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+        return (HttpServletResponse) Proxy.newProxyInstance(HttpServletResponse.class.getClassLoader(),
+                new Class<?>[]{HttpServletResponse.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getOutputStream":
+                            return out;
+                        case "getStatus":
+                            return status;
+                        case "getContentType":
+                            return headers.get("Content-Type");
+                        case "getCharacterEncoding":
+                            return "UTF-8";
+                        case "isCommitted":
+                            return false;
+                        case "containsHeader":
+                            return headers.containsKey(args[0]);
+                        case "setHeader":
+                            headers.put((String) args[0], (String) args[1]);
+                            return null;
+                        case "setContentLength":
+                            headers.put("Content-Length", String.valueOf(args[0]));
+                            return null;
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
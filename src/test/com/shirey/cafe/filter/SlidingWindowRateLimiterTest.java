@@ -0,0 +1,63 @@
+package com.shirey.cafe.filter;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class SlidingWindowRateLimiterTest {
+
+    private static final long WINDOW = 1000;
+
+    @Test
+    public void testTryAcquire() {
+
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(3, WINDOW, 10);
+        long now = 10 * WINDOW;
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(limiter.tryAcquire("127.0.0.1", now));
+        }
+        Assert.assertFalse(limiter.tryAcquire("127.0.0.1", now));
+        Assert.assertTrue(limiter.tryAcquire("127.0.0.2", now));
+    }
+
+    @Test
+    public void testSlidingWindow() {
+
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(4, WINDOW, 10);
+        long now = 10 * WINDOW;
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire("key", now);
+        }
+        // 3/4 of the previous window is still in the sliding window: 4 * 0.75 = 3 requests
+        Assert.assertTrue(limiter.tryAcquire("key", now + WINDOW + WINDOW / 4));
+        Assert.assertFalse(limiter.tryAcquire("key", now + WINDOW + WINDOW / 4));
+        Assert.assertTrue(limiter.tryAcquire("key", now + 3 * WINDOW));
+    }
+
+    @Test
+    public void testRemoveExpiredKeys() {
+
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(1, WINDOW, 2);
+        long now = 10 * WINDOW;
+        limiter.tryAcquire("first", now);
+        limiter.tryAcquire("second", now);
+        Assert.assertTrue(limiter.tryAcquire("third", now + 3 * WINDOW));
+        Assert.assertEquals(limiter.size(), 2);
+        // "first" was expired and evicted, so it starts counting again
+        Assert.assertTrue(limiter.tryAcquire("first", now + 3 * WINDOW));
+        Assert.assertEquals(limiter.size(), 2);
+    }
+
+    @Test
+    public void testNewKeyIsLimitedWhenAllKeysAreUsed() {
+
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(1, WINDOW, 2);
+        long now = 10 * WINDOW;
+        limiter.tryAcquire("first", now);
+        limiter.tryAcquire("second", now);
+        Assert.assertTrue(limiter.tryAcquire("third", now));
+        Assert.assertFalse(limiter.tryAcquire("third", now));
+        Assert.assertEquals(limiter.size(), 2);
+    }
+
+}
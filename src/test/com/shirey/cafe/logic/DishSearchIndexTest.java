@@ -0,0 +1,90 @@
+package com.shirey.cafe.logic;
+
+import com.shirey.cafe.entity.Dish;
+import com.shirey.cafe.entity.DishType;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+
+public class DishSearchIndexTest {
+
+    private DishSearchIndex index;
+
+    @BeforeMethod
+    public void setUp() {
+        index = new DishSearchIndex();
+        index.load(Arrays.asList(
+                createDish(1, DishType.SOUP, "3 Cheese Tomato", "Tomato soup with cheddar, jack and parmesan cheeses."),
+                createDish(2, DishType.SOUP, "Gazpacho", "Chilled Spanish-style cucumber, pepper and tomato."),
+                createDish(3, DishType.SALAD, "Салат с ёжиками", "Свежие овощи и сыр")), index.getGeneration());
+    }
+
+    @Test
+    public void testSearchByPrefix() {
+        Assert.assertEquals(findIds("tom"), Arrays.asList(1, 2));
+    }
+
+    @Test
+    public void testAllWordsShouldMatch() {
+        Assert.assertEquals(findIds("TOMATO ched"), Collections.singletonList(1));
+    }
+
+    @Test
+    public void testSearchCyrillic() {
+        Assert.assertEquals(findIds("ЕЖИК"), Collections.singletonList(3));
+    }
+
+    @Test
+    public void testNothingFound() {
+        Assert.assertTrue(findIds("pizza").isEmpty());
+        Assert.assertTrue(findIds(" ,. ").isEmpty());
+    }
+
+    @Test
+    public void testPutReplacesDish() {
+        index.put(createDish(2, DishType.SOUP, "Gazpacho", "Chilled soup"));
+        Assert.assertEquals(findIds("tomato"), Collections.singletonList(1));
+        Assert.assertEquals(findIds("chilled soup"), Collections.singletonList(2));
+    }
+
+    @Test
+    public void testDishRemovedFromMenuIsNotFound() {
+        Dish dish = createDish(1, DishType.SOUP, "3 Cheese Tomato", "");
+        dish.setInMenu(false);
+        index.put(dish);
+        Assert.assertTrue(findIds("cheese").isEmpty());
+        Assert.assertFalse(index.complete("chee", 5).contains("cheese"));
+    }
+
+    @Test
+    public void testComplete() {
+        Assert.assertEquals(index.complete("soup ch", 3), Arrays.asList("cheddar", "cheese", "cheeses"));
+    }
+
+    @Test
+    public void testDishesLoadedBeforeChangeAreNotInstalled() {
+        DishSearchIndex newIndex = new DishSearchIndex();
+        long generation = newIndex.getGeneration();
+        newIndex.put(createDish(1, DishType.SOUP, "Borsch", ""));
+        Assert.assertFalse(newIndex.load(Collections.emptyList(), generation));
+        Assert.assertFalse(newIndex.isLoaded());
+    }
+
+    private List<Integer> findIds(String query) {
+        return index.search(query).stream().map(Dish::getDishId).collect(Collectors.toList());
+    }
+
+    private static Dish createDish(int dishId, DishType type, String name, String description) {
+        Dish dish = new Dish(type, name, description, BigDecimal.ONE, true);
+        dish.setDishId(dishId);
+        return dish;
+    }
+
+}
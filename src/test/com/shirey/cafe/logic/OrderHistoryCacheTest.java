@@ -0,0 +1,111 @@
+package com.shirey.cafe.logic;
+
+import com.shirey.cafe.db.UnitOfWork;
+import com.shirey.cafe.entity.Order;
+import com.shirey.cafe.entity.OrderHistory;
+import com.shirey.cafe.exception.ConnectionException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+public class OrderHistoryCacheTest {
+
+    private static final OrderHistory HISTORY = new OrderHistory(Collections.emptyMap());
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+
+        OrderHistoryCache cache = new OrderHistoryCache(2);
+        cache.put(1, HISTORY, cache.getGeneration());
+        cache.put(2, HISTORY, cache.getGeneration());
+        cache.get(1);
+        cache.put(3, HISTORY, cache.getGeneration());
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertNotNull(cache.get(1));
+        Assert.assertNull(cache.get(2));
+        Assert.assertNotNull(cache.get(3));
+    }
+
+    @Test
+    public void testInvalidate() {
+
+        OrderHistoryCache cache = new OrderHistoryCache(10);
+        cache.put(1, HISTORY, cache.getGeneration());
+        cache.invalidate(1);
+        Assert.assertNull(cache.get(1));
+    }
+
+    @Test
+    public void testHistoryLoadedBeforeInvalidationIsNotPut() {
+
+        OrderHistoryCache cache = new OrderHistoryCache(10);
+        long generation = cache.getGeneration();
+        cache.invalidate(1);
+        cache.put(1, HISTORY, generation);
+        Assert.assertNull(cache.get(1));
+    }
+
+    @Test
+    public void testInvalidationOfOtherUserDoesNotPreventPut() {
+
+        OrderHistoryCache cache = new OrderHistoryCache(10);
+        long generation = cache.getGeneration();
+        cache.invalidate(2);
+        cache.put(1, HISTORY, generation);
+        Assert.assertNotNull(cache.get(1));
+    }
+
+    @Test
+    public void testForgottenInvalidationPreventsOlderPut() {
+
+        OrderHistoryCache cache = new OrderHistoryCache(2);
+        long generation = cache.getGeneration();
+        cache.invalidate(1);
+        cache.invalidate(2);
+        cache.invalidate(3);
+        cache.put(1, HISTORY, generation);
+        Assert.assertNull(cache.get(1));
+        cache.put(1, HISTORY, cache.getGeneration());
+        Assert.assertNotNull(cache.get(1));
+    }
+
+    @Test
+    public void testHistoryLoadedBeforeCommitIsRemoved() throws ConnectionException {
+
+        OrderHistoryCache cache = new OrderHistoryCache(10);
+        try (UnitOfWork unitOfWork = UnitOfWork.begin(true)) {
+            cache.invalidate(1);
+            cache.put(1, HISTORY, cache.getGeneration());
+            Assert.assertNotNull(cache.get(1));
+            unitOfWork.commit();
+        }
+        Assert.assertNull(cache.get(1));
+    }
+
+    @Test
+    public void testBucketOfSubListIsSerializable() throws IOException {
+
+        List<Order> orders = Arrays.asList(new Order(), new Order(), new Order());
+        OrderHistory.Bucket bucket = new OrderHistory.Bucket(orders.subList(0, 2), 3, 2, false);
+        try (ObjectOutputStream out = new ObjectOutputStream(new ByteArrayOutputStream())) {
+            out.writeObject(bucket);
+        }
+        Assert.assertEquals(bucket.getOrders().size(), 2);
+    }
+
+    @Test
+    public void testEmptyHistory() {
+
+        Assert.assertTrue(HISTORY.isEmpty());
+        Assert.assertTrue(HISTORY.getActive().getOrders().isEmpty());
+        Assert.assertNull(HISTORY.getFinished().getNextCursor());
+    }
+
+}
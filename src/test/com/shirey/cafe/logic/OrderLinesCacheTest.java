@@ -0,0 +1,69 @@
+package com.shirey.cafe.logic;
+
+import com.shirey.cafe.entity.Dish;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+
+public class OrderLinesCacheTest {
+
+    @Test
+    public void testLeastRecentlyUsedOrderIsEvicted() {
+        OrderLinesCache cache = new OrderLinesCache(2);
+        cache.put(1, createLines(1, "soup"));
+        cache.put(2, createLines(2, "salad"));
+        cache.get(1);
+        cache.put(3, createLines(3, "cake"));
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertNotNull(cache.get(1));
+        Assert.assertNull(cache.get(2));
+        Assert.assertNotNull(cache.get(3));
+    }
+
+    @Test
+    public void testChangesOfPutLinesDontChangeCache() {
+        OrderLinesCache cache = new OrderLinesCache(2);
+        Map<Dish, Integer> cart = createLines(1, "soup");
+        Dish dish = cart.keySet().iterator().next();
+        cache.put(1, cart);
+        dish.setName("changed");
+        dish.setPrice(BigDecimal.ONE);
+        cart.put(createDish(2, "salad"), 1);
+        Map<Dish, Integer> cached = cache.get(1);
+        Assert.assertEquals(cached.size(), 1);
+        Dish cachedDish = cached.keySet().iterator().next();
+        Assert.assertNotSame(cachedDish, dish);
+        Assert.assertEquals(cachedDish.getName(), "soup");
+        Assert.assertEquals(cachedDish.getPrice(), BigDecimal.TEN);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testCachedLinesAreUnmodifiable() {
+        OrderLinesCache cache = new OrderLinesCache(2);
+        cache.put(1, createLines(1, "soup"));
+        cache.get(1).put(createDish(2, "salad"), 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testZeroCapacityIsNotAllowed() {
+        new OrderLinesCache(0);
+    }
+
+    private Map<Dish, Integer> createLines(int dishId, String name) {
+        Map<Dish, Integer> lines = new HashMap<>();
+        lines.put(createDish(dishId, name), 2);
+        return lines;
+    }
+
+    private Dish createDish(int dishId, String name) {
+        Dish dish = new Dish();
+        dish.setDishId(dishId);
+        dish.setName(name);
+        dish.setPrice(BigDecimal.TEN);
+        return dish;
+    }
+}
@@ -0,0 +1,45 @@
+package com.shirey.cafe.logic;
+
+import com.shirey.cafe.exception.LogicException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class PasswordHasherTest {
+
+    private static final String PASSWORD = "password";
+    private static final String LEGACY_HASH = "5f4dcc3b5aa765d61d8327deb882cf99";
+
+    @Test
+    public void testHashAndVerify() throws LogicException {
+
+        String hash = PasswordHasher.hash(PASSWORD);
+        Assert.assertTrue(hash.startsWith("pbkdf2$"));
+        Assert.assertTrue(PasswordHasher.verify(PASSWORD, hash));
+        Assert.assertFalse(PasswordHasher.verify("Password", hash));
+        Assert.assertFalse(PasswordHasher.needsRehash(hash));
+    }
+
+    @Test
+    public void testHashesAreSalted() throws LogicException {
+
+        Assert.assertNotEquals(PasswordHasher.hash(PASSWORD), PasswordHasher.hash(PASSWORD));
+    }
+
+    @Test
+    public void testLegacyHash() throws LogicException {
+
+        Assert.assertTrue(PasswordHasher.verify(PASSWORD, LEGACY_HASH));
+        Assert.assertTrue(PasswordHasher.verify(PASSWORD, LEGACY_HASH.toUpperCase()));
+        Assert.assertFalse(PasswordHasher.verify("wrong", LEGACY_HASH));
+        Assert.assertTrue(PasswordHasher.needsRehash(LEGACY_HASH));
+    }
+
+    @Test
+    public void testWeakerHashNeedsRehash() throws LogicException {
+
+        String[] parts = PasswordHasher.hash(PASSWORD).split("\\$");
+        Assert.assertTrue(PasswordHasher.needsRehash(parts[0] + "$1000$" + parts[2] + "$" + parts[3]));
+    }
+
+}
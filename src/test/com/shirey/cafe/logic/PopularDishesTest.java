@@ -0,0 +1,102 @@
+package com.shirey.cafe.logic;
+
+import com.shirey.cafe.entity.Dish;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+public class PopularDishesTest {
+
+    private static final long START = TimeUnit.DAYS.toMillis(17000);
+
+    private long now;
+    private PopularDishes tracker;
+
+    @BeforeMethod
+    public void setUp() {
+        now = START;
+        tracker = new PopularDishes(2, () -> now);
+    }
+
+    @Test
+    public void testTopByQuantity() {
+        order(1, 1, 2, 5);
+        order(3, 3);
+        Assert.assertEquals(new ArrayList<>(tracker.getTop(PopularDishes.Window.DAY)), Arrays.asList(2, 3));
+        Assert.assertEquals(new ArrayList<>(tracker.getTop(PopularDishes.Window.WEEK)), Arrays.asList(2, 3));
+    }
+
+    @Test
+    public void testDishReplacesLeastPopular() {
+        order(1, 3, 2, 2);
+        order(3, 4);
+        Assert.assertEquals(new ArrayList<>(tracker.getTop(PopularDishes.Window.DAY)), Arrays.asList(3, 1));
+    }
+
+    @Test
+    public void testDayExpiresBeforeWeek() {
+        order(1, 5);
+        now += TimeUnit.HOURS.toMillis(2);
+        order(2, 2);
+        now += TimeUnit.HOURS.toMillis(23);
+        Assert.assertEquals(new ArrayList<>(tracker.getTop(PopularDishes.Window.DAY)), Collections.singletonList(2));
+        Assert.assertEquals(new ArrayList<>(tracker.getTop(PopularDishes.Window.WEEK)), Arrays.asList(1, 2));
+        now += TimeUnit.DAYS.toMillis(7);
+        Assert.assertTrue(tracker.getTop(PopularDishes.Window.WEEK).isEmpty());
+    }
+
+    @Test
+    public void testOldOrderIsCountedOnlyInWeek() {
+        order(1, 1);
+        Map<Dish, Integer> lines = new HashMap<>();
+        lines.put(createDish(2), 4);
+        tracker.orderMade(lines, new Date(now - TimeUnit.DAYS.toMillis(3)));
+        Assert.assertEquals(new ArrayList<>(tracker.getTop(PopularDishes.Window.DAY)), Collections.singletonList(1));
+        Assert.assertEquals(new ArrayList<>(tracker.getTop(PopularDishes.Window.WEEK)), Arrays.asList(2, 1));
+    }
+
+    @Test
+    public void testTopChangeIncreasesMenuVersion() {
+        long version = ContentVersion.MENU.get();
+        order(1, 1);
+        Assert.assertTrue(ContentVersion.MENU.get() > version);
+        version = ContentVersion.MENU.get();
+        order(1, 1);
+        Assert.assertEquals(ContentVersion.MENU.get(), version);
+    }
+
+    @Test
+    public void testRankingChangeIsPublished() {
+        order(1, 2, 2, 1);
+        long version = ContentVersion.MENU.get();
+        order(2, 3);
+        Assert.assertEquals(new ArrayList<>(tracker.getTop(PopularDishes.Window.DAY)), Arrays.asList(2, 1));
+        Assert.assertTrue(ContentVersion.MENU.get() > version);
+    }
+
+    /**
+     * Makes an order now, arguments are pairs of a dish id and a quantity.
+     */
+    private void order(int... dishIdsAndQuantities) {
+        Map<Dish, Integer> lines = new HashMap<>();
+        for (int i = 0; i < dishIdsAndQuantities.length; i += 2) {
+            lines.put(createDish(dishIdsAndQuantities[i]), dishIdsAndQuantities[i + 1]);
+        }
+        tracker.orderMade(lines, new Date(now));
+    }
+
+    private Dish createDish(int dishId) {
+        Dish dish = new Dish();
+        dish.setDishId(dishId);
+        return dish;
+    }
+}
@@ -0,0 +1,101 @@
+package com.shirey.cafe.logic;
+
+import com.shirey.cafe.dao.SalesRollupDAO;
+import com.shirey.cafe.entity.Dish;
+import com.shirey.cafe.entity.DishType;
+import com.shirey.cafe.entity.Order;
+import com.shirey.cafe.entity.PaymentType;
+import com.shirey.cafe.entity.SalesBucket;
+import com.shirey.cafe.exception.DAOException;
+import com.shirey.cafe.exception.LogicException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+public class SalesAnalyticsTest {
+
+    @Test
+    public void testMadeOrderBuckets() {
+
+        List<SalesBucket> buckets = SalesAnalytics.defineBuckets(createOrder(), createLines(), Order.Status.ACTIVE);
+        Assert.assertEquals(buckets.size(), 4);
+        SalesBucket dish = buckets.get(3);
+        Assert.assertEquals(dish.getDimension(), SalesBucket.Dimension.DISH);
+        Assert.assertEquals(dish.getBucket(), "7");
+        Assert.assertEquals(dish.getMadeAmount(), new BigDecimal("7.00"));
+        Assert.assertEquals(dish.getDishQuantity(), 2);
+    }
+
+    @Test
+    public void testCancellationPercent() {
+
+        SalesBucket made = SalesAnalytics.defineBuckets(createOrder(), null, Order.Status.ACTIVE).get(2);
+        SalesBucket cancelled = SalesAnalytics.defineBuckets(createOrder(), null, Order.Status.CANCELLED).get(2);
+        SalesBucket bucket = made.plus(made).plus(made).plus(cancelled);
+        Assert.assertEquals(bucket.getBucket(), PaymentType.CASH.name());
+        Assert.assertEquals(bucket.getCancellationPercent(), new BigDecimal("33.3"));
+        Assert.assertEquals(bucket.getRevenue(), new BigDecimal("14.00"));
+    }
+
+    @Test
+    public void testNotFlushedCountersAreKeptAndShown() throws LogicException {
+
+        FailingSalesRollupDAO dao = new FailingSalesRollupDAO();
+        SalesAnalytics analytics = new SalesAnalytics(dao);
+        analytics.orderMade(createOrder(), createLines());
+        analytics.flush();
+        Assert.assertTrue(dao.added.isEmpty());
+
+        List<SalesBucket> sales = analytics.findSales(SalesBucket.Dimension.PAYMENT_TYPE, "");
+        Assert.assertEquals(sales.size(), 1);
+        Assert.assertEquals(sales.get(0).getOrdersMade(), 1);
+
+        dao.failing = false;
+        analytics.flush();
+        Assert.assertEquals(dao.added.size(), 4);
+        Assert.assertTrue(analytics.findSales(SalesBucket.Dimension.PAYMENT_TYPE, "").isEmpty());
+    }
+
+    private static Order createOrder() {
+        Order order = new Order(1, PaymentType.CASH, new Date(), new BigDecimal("7.00"), false);
+        order.setOrderId(1);
+        return order;
+    }
+
+    private static Map<Dish, Integer> createLines() {
+        Dish dish = new Dish(DishType.SOUP, "Gazpacho", "", new BigDecimal("3.50"), true);
+        dish.setDishId(7);
+        Map<Dish, Integer> lines = new HashMap<>();
+        lines.put(dish, 2);
+        return lines;
+    }
+
+    private static class FailingSalesRollupDAO extends SalesRollupDAO {
+
+        private boolean failing = true;
+        private final List<SalesBucket> added = new ArrayList<>();
+
+        @Override
+        public void addAll(Collection<SalesBucket> buckets) throws DAOException {
+            if (failing) {
+                throw new DAOException("database is not available");
+            }
+            added.addAll(buckets);
+        }
+
+        @Override
+        public List<SalesBucket> findBuckets(SalesBucket.Dimension dimension, String fromBucket) {
+            return Collections.emptyList();
+        }
+    }
+
+}
@@ -0,0 +1,371 @@
+package com.shirey.cafe.tag;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.el.ELContext;
+import javax.servlet.Servlet;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpSession;
+import javax.servlet.jsp.JspException;
+import javax.servlet.jsp.JspWriter;
+import javax.servlet.jsp.PageContext;
+import javax.servlet.jsp.el.ExpressionEvaluator;
+import javax.servlet.jsp.el.VariableResolver;
+import javax.servlet.jsp.tagext.BodyContent;
+import javax.servlet.jsp.tagext.BodyTag;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.lang.reflect.Proxy;
+import java.util.Enumeration;
+
+
+public class FragmentCacheCustomTagTest {
+
+    @Test
+    public void testPooledTagWritesCachedFragmentOnce() throws JspException {
+        FragmentCacheCustomTag tag = new FragmentCacheCustomTag();
+        Assert.assertEquals(render(tag, "pooled", "admin", 1L, "admin menu"), "admin menu");
+        Assert.assertEquals(render(tag, "pooled", "admin", 1L, "not evaluated"), "admin menu");
+    }
+
+    @Test
+    public void testPooledTagDoesNotCacheOldBodyUnderOtherKey() throws JspException {
+        FragmentCacheCustomTag tag = new FragmentCacheCustomTag();
+        render(new FragmentCacheCustomTag(), "variants", "guest", 1L, "guest menu");
+        Assert.assertEquals(render(tag, "variants", "admin", 1L, "admin menu"), "admin menu");
+        Assert.assertEquals(render(tag, "variants", "guest", 1L, "not evaluated"), "guest menu");
+        Assert.assertEquals(render(tag, "variants", "guest", 1L, "not evaluated"), "guest menu");
+    }
+
+    @Test
+    public void testDisabledTagEvaluatesBody() throws JspException {
+        FragmentCacheCustomTag tag = new FragmentCacheCustomTag();
+        tag.setEnabled(false);
+        Assert.assertEquals(render(tag, "disabled", "", 1L, "first"), "first");
+        Assert.assertEquals(render(tag, "disabled", "", 1L, "second"), "second");
+    }
+
+    /**
+     * Uses the tag handler the way a JSP container does and returns the page output.
+     */
+    private String render(FragmentCacheCustomTag tag, String name, String variant, Long version, String body)
+            throws JspException {
+
+        StringJspWriter out = new StringJspWriter(null);
+        tag.setPageContext(new StubPageContext(out));
+        tag.setName(name);
+        tag.setVariant(variant);
+        tag.setVersion(version);
+        if (tag.doStartTag() == BodyTag.EVAL_BODY_BUFFERED) {
+            StringJspWriter bodyContent = new StringJspWriter(out);
+            tag.setBodyContent(bodyContent);
+            tag.doInitBody();
+            bodyContent.print(body);
+            tag.doAfterBody();
+        }
+        tag.doEndTag();
+        return out.getString();
+    }
+
+    private static class StringJspWriter extends BodyContent {
+
+        private final StringBuilder buffer = new StringBuilder();
+
+        private StringJspWriter(JspWriter enclosingWriter) {
+            super(enclosingWriter);
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            buffer.append(chars, offset, length);
+        }
+
+        @Override
+        public void newLine() {
+            buffer.append('\n');
+        }
+
+        @Override
+        public void print(boolean b) {
+            buffer.append(b);
+        }
+
+        @Override
+        public void print(char c) {
+            buffer.append(c);
+        }
+
+        @Override
+        public void print(int i) {
+            buffer.append(i);
+        }
+
+        @Override
+        public void print(long l) {
+            buffer.append(l);
+        }
+
+        @Override
+        public void print(float f) {
+            buffer.append(f);
+        }
+
+        @Override
+        public void print(double d) {
+            buffer.append(d);
+        }
+
+        @Override
+        public void print(char[] s) {
+            buffer.append(s);
+        }
+
+        @Override
+        public void print(String s) {
+            buffer.append(s);
+        }
+
+        @Override
+        public void print(Object obj) {
+            buffer.append(obj);
+        }
+
+        @Override
+        public void println() {
+            newLine();
+        }
+
+        @Override
+        public void println(boolean x) {
+            print(x);
+            newLine();
+        }
+
+        @Override
+        public void println(char x) {
+            print(x);
+            newLine();
+        }
+
+        @Override
+        public void println(int x) {
+            print(x);
+            newLine();
+        }
+
+        @Override
+        public void println(long x) {
+            print(x);
+            newLine();
+        }
+
+        @Override
+        public void println(float x) {
+            print(x);
+            newLine();
+        }
+
+        @Override
+        public void println(double x) {
+            print(x);
+            newLine();
+        }
+
+        @Override
+        public void println(char[] x) {
+            print(x);
+            newLine();
+        }
+
+        @Override
+        public void println(String x) {
+            print(x);
+            newLine();
+        }
+
+        @Override
+        public void println(Object x) {
+            print(x);
+            newLine();
+        }
+
+        @Override
+        public void clear() {
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void clearBuffer() {
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public int getRemaining() {
+            return 0;
+        }
+
+        @Override
+        public Reader getReader() {
+            return new StringReader(getString());
+        }
+
+        @Override
+        public String getString() {
+            return buffer.toString();
+        }
+
+        @Override
+        public void writeOut(Writer writer) throws IOException {
+            writer.write(getString());
+        }
+    }
+
+    private static class StubPageContext extends PageContext {
+
+        private final JspWriter out;
+        private final HttpSession session = (HttpSession) Proxy.newProxyInstance(
+                HttpSession.class.getClassLoader(), new Class<?>[]{HttpSession.class},
+                (proxy, method, args) -> "getAttribute".equals(method.getName()) && "locale".equals(args[0]) ? "en_US" : null);
+
+        private StubPageContext(JspWriter out) {
+            this.out = out;
+        }
+
+        @Override
+        public HttpSession getSession() {
+            return session;
+        }
+
+        @Override
+        public JspWriter getOut() {
+            return out;
+        }
+
+        @Override
+        public void initialize(Servlet servlet, ServletRequest request, ServletResponse response, String errorPageURL,
+                               boolean needsSession, int bufferSize, boolean autoFlush) {
+        }
+
+        @Override
+        public void release() {
+        }
+
+        @Override
+        public Object getPage() {
+            return null;
+        }
+
+        @Override
+        public ServletRequest getRequest() {
+            return null;
+        }
+
+        @Override
+        public ServletResponse getResponse() {
+            return null;
+        }
+
+        @Override
+        public Exception getException() {
+            return null;
+        }
+
+        @Override
+        public ServletConfig getServletConfig() {
+            return null;
+        }
+
+        @Override
+        public ServletContext getServletContext() {
+            return null;
+        }
+
+        @Override
+        public void forward(String relativeUrlPath) {
+        }
+
+        @Override
+        public void include(String relativeUrlPath) {
+        }
+
+        @Override
+        public void include(String relativeUrlPath, boolean flush) {
+        }
+
+        @Override
+        public void handlePageException(Exception e) {
+        }
+
+        @Override
+        public void handlePageException(Throwable t) {
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+        }
+
+        @Override
+        public void setAttribute(String name, Object value, int scope) {
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return null;
+        }
+
+        @Override
+        public Object getAttribute(String name, int scope) {
+            return null;
+        }
+
+        @Override
+        public Object findAttribute(String name) {
+            return null;
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+        }
+
+        @Override
+        public void removeAttribute(String name, int scope) {
+        }
+
+        @Override
+        public int getAttributesScope(String name) {
+            return 0;
+        }
+
+        @Override
+        public Enumeration<String> getAttributeNamesInScope(int scope) {
+            return null;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public ExpressionEvaluator getExpressionEvaluator() {
+            return null;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public VariableResolver getVariableResolver() {
+            return null;
+        }
+
+        @Override
+        public ELContext getELContext() {
+            return null;
+        }
+    }
+}
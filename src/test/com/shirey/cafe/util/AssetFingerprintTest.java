@@ -0,0 +1,43 @@
+package com.shirey.cafe.util;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.servlet.ServletContext;
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+
+public class AssetFingerprintTest {
+
+    private static final ServletContext CONTEXT = (ServletContext) Proxy.newProxyInstance(
+            ServletContext.class.getClassLoader(), new Class<?>[]{ServletContext.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getResourceAsStream":
+                        return "/css/test.css".equals(args[0])
+                                ? new ByteArrayInputStream("body {}".getBytes(StandardCharsets.UTF_8)) : null;
+                    case "getContextPath":
+                        return "/cafe";
+                    default:
+                        return null;
+                }
+            });
+
+    @Test
+    public void testFingerprintOfExistingResource() {
+        String fingerprint = AssetFingerprint.getFingerprint(CONTEXT, "/css/test.css");
+        Assert.assertEquals(fingerprint.length(), 12);
+        Assert.assertEquals(AssetFingerprint.getVersionedUrl(CONTEXT, "/css/test.css"), "/cafe/css/test.css?v=" + fingerprint);
+    }
+
+    @Test
+    public void testMissingResourceIsNotCached() {
+        int size = AssetFingerprint.size();
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(AssetFingerprint.getFingerprint(CONTEXT, "/css/missing" + i + ".css"), "");
+        }
+        Assert.assertEquals(AssetFingerprint.size(), size);
+        Assert.assertEquals(AssetFingerprint.getVersionedUrl(CONTEXT, "/css/missing.css"), "/cafe/css/missing.css");
+    }
+}
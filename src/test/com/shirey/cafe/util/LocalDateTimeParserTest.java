@@ -3,9 +3,17 @@ package com.shirey.cafe.util;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class LocalDateTimeParserTest {
 
@@ -26,4 +34,36 @@ public class LocalDateTimeParserTest {
         Assert.assertEquals(LocalDateTimeParser.parseLdtStringToDate(localDateTime.toString()), dateExpected);
     }
 
-}
\ No newline at end of file
+    @Test(expectedExceptions = ParseException.class)
+    public void testParseException() throws Exception {
+
+        LocalDateTimeParser.parseLdtStringToDate("2018-01-23 14:01");
+    }
+
+    @Test
+    public void testParseConcurrently() throws Exception {
+
+        int tasks = 5000;
+        LocalDateTime start = LocalDateTime.of(2018, 1, 1, 0, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                LocalDateTime localDateTime = start.plusMinutes(i * 37L);
+                results.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        Date expected = Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant());
+                        return expected.equals(LocalDateTimeParser.parseLdtStringToDate(localDateTime.toString()));
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+<%@ page contentType="text/html;charset=UTF-8" pageEncoding="UTF-8" %>
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
+<%@ taglib prefix="ctg" uri="customtags" %>
+
+
+<c:import url="/jsp/service/head.jsp"/>
+<head>
+    <title><fmt:message key="title.sales"/></title>
+</head>
+<body>
+<c:import url="/jsp/service/header.jsp"/>
+<c:set var="currentPage" scope="session" value="/jsp/admin/sales.jsp"/>
+
+
+<div class="container text-center" style="margin-top: 250px">
+    <div class="row justify-content-center">
+        <div class="col">
+            <br><h5 class="text-right"><fmt:message key="title.sales"/></h5><br>
+            <ul class="nav nav-tabs justify-content-center text-uppercase mb-3">
+                <li class="nav-item">
+                    <a class="nav-link ${salesDimension == 'DAY' ? 'active' : ''}"
+                       href="${root}/controller?command=show_sales&dimension=day"><fmt:message key="sales.day"/></a>
+                </li>
+                <li class="nav-item">
+                    <a class="nav-link ${salesDimension == 'HOUR' ? 'active' : ''}"
+                       href="${root}/controller?command=show_sales&dimension=hour"><fmt:message key="sales.hour"/></a>
+                </li>
+                <li class="nav-item">
+                    <a class="nav-link ${salesDimension == 'DISH' ? 'active' : ''}"
+                       href="${root}/controller?command=show_sales&dimension=dish"><fmt:message key="sales.dish"/></a>
+                </li>
+                <li class="nav-item">
+                    <a class="nav-link ${salesDimension == 'PAYMENT_TYPE' ? 'active' : ''}"
+                       href="${root}/controller?command=show_sales&dimension=payment_type"><fmt:message
+                            key="sales.paymentType"/></a>
+                </li>
+            </ul>
+            <c:choose>
+                <c:when test="${empty sales}">
+                    <p><fmt:message key="sales.noSales"/></p>
+                </c:when>
+                <c:otherwise>
+                    <table class="table table-hover table-bordered">
+                        <thead class="thead-light text-uppercase">
+                        <tr>
+                            <th scope="col"></th>
+                            <th scope="col"><fmt:message key="sales.ordersMade"/></th>
+                            <c:if test="${salesDimension == 'DISH'}">
+                                <th scope="col"><fmt:message key="sales.quantity"/></th>
+                            </c:if>
+                            <th scope="col"><fmt:message key="sales.revenue"/></th>
+                            <th scope="col"><fmt:message key="sales.cancelled"/></th>
+                            <th scope="col"><fmt:message key="sales.cancellationRate"/></th>
+                            <th scope="col"><fmt:message key="sales.finished"/></th>
+                        </tr>
+                        </thead>
+                        <tbody class="text-left">
+                        <c:forEach var="bucket" items="${sales}">
+                            <tr>
+                                <th scope="row"><c:out value="${bucket.name}"/></th>
+                                <td>${bucket.ordersMade}</td>
+                                <c:if test="${salesDimension == 'DISH'}">
+                                    <td>${bucket.dishQuantity}</td>
+                                </c:if>
+                                <td>${bucket.revenue}</td>
+                                <td>${bucket.ordersCancelled}</td>
+                                <td>${bucket.cancellationPercent}%</td>
+                                <td>${bucket.ordersFinished}</td>
+                            </tr>
+                        </c:forEach>
+                        </tbody>
+                    </table>
+                </c:otherwise>
+            </c:choose>
+        </div>
+    </div>
+</div>
+
+<br>
+<br>
+
+<c:import url="/jsp/service/footer.jsp"/>
+</body>
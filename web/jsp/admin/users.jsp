@@ -17,6 +17,26 @@
     <div class="row justify-content-center">
         <div class="col">
             <br><h5 class="text-right"><fmt:message key="title.users"/></h5><br>
+            <c:set var="search" value="${usersPage.search}"/>
+            <form class="form-inline justify-content-end mb-3" method="get" action="${root}/controller">
+                <input type="hidden" name="command" value="show_users">
+                <select class="form-control mx-1" name="searchBy">
+                    <option value="email" ${search.field != 'LAST_NAME' ? 'selected' : ''}><fmt:message key="users.loginEmail"/></option>
+                    <option value="last_name" ${search.field == 'LAST_NAME' ? 'selected' : ''}><fmt:message key="profile.last"/></option>
+                </select>
+                <input class="form-control mx-1" type="search" name="query" maxlength="40" value="<c:out value="${search.prefix}"/>">
+                <select class="form-control mx-1" name="role">
+                    <option value=""><fmt:message key="users.role"/>: <fmt:message key="users.any"/></option>
+                    <option value="customer" ${search.role == 'CUSTOMER' ? 'selected' : ''}>customer</option>
+                    <option value="admin" ${search.role == 'ADMIN' ? 'selected' : ''}>admin</option>
+                </select>
+                <select class="form-control mx-1" name="active">
+                    <option value=""><fmt:message key="users.active"/>: <fmt:message key="users.any"/></option>
+                    <option value="true" ${search.active == true ? 'selected' : ''}>true</option>
+                    <option value="false" ${search.active == false ? 'selected' : ''}>false</option>
+                </select>
+                <button class="btn btn-outline-info mx-1" type="submit"><fmt:message key="users.search"/></button>
+            </form>
             <table class="table table-hover table-bordered">
                 <thead class="thead-light text-uppercase">
                 <tr>
@@ -34,7 +54,7 @@
                 </tr>
                 </thead>
                 <tbody class="text-left">
-                <c:forEach var="user" items="${users}" varStatus="status">
+                <c:forEach var="user" items="${usersPage.users}" varStatus="status">
                     <tr>
                         <td scope="row">${user.userId}</td>
                         <td>${user.email}</td>
@@ -65,6 +85,33 @@
                 </c:forEach>
                 </tbody>
             </table>
+            <c:if test="${empty usersPage.users}">
+                <p><fmt:message key="users.nothingFound"/></p>
+            </c:if>
+            <c:url var="usersUrl" value="/controller">
+                <c:param name="command" value="show_users"/>
+                <c:param name="searchBy" value="${search.field}"/>
+                <c:param name="query" value="${search.prefix}"/>
+                <c:param name="role" value="${search.role}"/>
+                <c:param name="active" value="${search.active}"/>
+            </c:url>
+            <c:url var="nextUsersUrl" value="/controller">
+                <c:param name="command" value="show_users"/>
+                <c:param name="searchBy" value="${search.field}"/>
+                <c:param name="query" value="${search.prefix}"/>
+                <c:param name="role" value="${search.role}"/>
+                <c:param name="active" value="${search.active}"/>
+                <c:param name="afterId" value="${usersPage.nextAfterId}"/>
+                <c:param name="afterKey" value="${usersPage.nextAfterKey}"/>
+            </c:url>
+            <div class="text-right">
+                <c:if test="${not usersPage.firstPage}">
+                    <a class="btn btn-outline-info my-2 mx-1" href="${usersUrl}"><fmt:message key="customerPage.firstPage"/></a>
+                </c:if>
+                <c:if test="${not empty usersPage.nextAfterId}">
+                    <a class="btn btn-outline-info my-2 mx-1" href="${nextUsersUrl}"><fmt:message key="customerPage.nextPage"/></a>
+                </c:if>
+            </div>
         </div>
     </div>
 </div>
@@ -20,10 +20,10 @@
     <span class="text-danger">
         <fmt:message key="menu.banned"/></span><br><br>
     </c:if>
-    <c:if test="${empty orders}">
+    <c:if test="${orderHistory.empty}">
         ${user.firstName}, <fmt:message key="message.noOrders" bundle="${rbMsg}"/>
     </c:if>
-    <c:if test="${not empty orders and user.isActive()}">
+    <c:if test="${not orderHistory.empty and user.isActive()}">
         <h5>${user.firstName}<fmt:message key="customerPage.info"/></h5><br>
     </c:if>
     <c:if test="${messageOrderIsAlreadyCancelled}">
@@ -40,8 +40,8 @@
         <fmt:message key="message.orderPickedUp" bundle="${rbMsg}"/></span><br><br>
         <c:remove var="messageOrderPickedUp"/>
     </c:if>
-    <c:if test="${not empty activeOrders}">
-        <h5><fmt:message key="customerPage.activeOrders"/></h5>
+    <c:if test="${not empty orderHistory.active.orders}">
+        <h5><fmt:message key="customerPage.activeOrders"/> (${orderHistory.active.count})</h5>
         <table class="table table-hover table-bordered">
             <thead class="thead-light text-uppercase">
             <tr>
@@ -54,7 +54,7 @@
             </tr>
             </thead>
             <tbody class="text-left">
-            <c:forEach var="order" items="${activeOrders}" varStatus="status">
+            <c:forEach var="order" items="${orderHistory.active.orders}" varStatus="status">
                 <tr>
                     <td scope="row">${status.count}</td>
                     <td><ctg:formatDate date="${order.createDate}"/></td>
@@ -91,10 +91,21 @@
             </c:forEach>
             </tbody>
         </table>
+        <c:if test="${not orderHistory.active.firstPage or not empty orderHistory.active.nextCursor}">
+            <div class="row justify-content-center">
+                <c:if test="${not orderHistory.active.firstPage}">
+                    <a class="btn btn-outline-info my-2 mx-1" href="${root}/controller?command=show_customer_page"><fmt:message key="customerPage.firstPage"/></a>
+                </c:if>
+                <c:if test="${not empty orderHistory.active.nextCursor}">
+                    <a class="btn btn-outline-info my-2 mx-1"
+                       href="${root}/controller?command=show_customer_page&status=ACTIVE&after=${orderHistory.active.nextCursor}"><fmt:message key="customerPage.nextPage"/></a>
+                </c:if>
+            </div>
+        </c:if>
     </c:if>
-    <c:if test="${not empty cancelledOrders}">
+    <c:if test="${not empty orderHistory.cancelled.orders}">
         <br>
-        <h5><fmt:message key="customerPage.cancelledOrders"/></h5>
+        <h5><fmt:message key="customerPage.cancelledOrders"/> (${orderHistory.cancelled.count})</h5>
         <table class="table table-hover table-bordered">
             <thead class="thead-light text-uppercase">
             <tr>
@@ -106,7 +117,7 @@
             </tr>
             </thead>
             <tbody class="text-left">
-            <c:forEach var="order" items="${cancelledOrders}" varStatus="status">
+            <c:forEach var="order" items="${orderHistory.cancelled.orders}" varStatus="status">
                 <tr>
                     <td scope="row">${status.count}</td>
                     <td><ctg:formatDate date="${order.createDate}"/></td>
@@ -124,10 +135,21 @@
             </c:forEach>
             </tbody>
         </table>
+        <c:if test="${not orderHistory.cancelled.firstPage or not empty orderHistory.cancelled.nextCursor}">
+            <div class="row justify-content-center">
+                <c:if test="${not orderHistory.cancelled.firstPage}">
+                    <a class="btn btn-outline-info my-2 mx-1" href="${root}/controller?command=show_customer_page"><fmt:message key="customerPage.firstPage"/></a>
+                </c:if>
+                <c:if test="${not empty orderHistory.cancelled.nextCursor}">
+                    <a class="btn btn-outline-info my-2 mx-1"
+                       href="${root}/controller?command=show_customer_page&status=CANCELLED&after=${orderHistory.cancelled.nextCursor}"><fmt:message key="customerPage.nextPage"/></a>
+                </c:if>
+            </div>
+        </c:if>
     </c:if>
-    <c:if test="${not empty finishedOrders}">
+    <c:if test="${not empty orderHistory.finished.orders}">
         <br>
-        <h5><fmt:message key="customerPage.finishedOrders"/></h5>
+        <h5><fmt:message key="customerPage.finishedOrders"/> (${orderHistory.finished.count})</h5>
         <table class="table table-hover table-bordered">
             <thead class="thead-light text-uppercase">
             <tr>
@@ -140,7 +162,7 @@
             </tr>
             </thead>
             <tbody class="text-left">
-            <c:forEach var="order" items="${finishedOrders}" varStatus="status">
+            <c:forEach var="order" items="${orderHistory.finished.orders}" varStatus="status">
                 <tr>
                     <td scope="row">${status.count}</td>
                     <td><ctg:formatDate date="${order.createDate}"/></td>
@@ -176,6 +198,17 @@
             </c:forEach>
             </tbody>
         </table>
+        <c:if test="${not orderHistory.finished.firstPage or not empty orderHistory.finished.nextCursor}">
+            <div class="row justify-content-center">
+                <c:if test="${not orderHistory.finished.firstPage}">
+                    <a class="btn btn-outline-info my-2 mx-1" href="${root}/controller?command=show_customer_page"><fmt:message key="customerPage.firstPage"/></a>
+                </c:if>
+                <c:if test="${not empty orderHistory.finished.nextCursor}">
+                    <a class="btn btn-outline-info my-2 mx-1"
+                       href="${root}/controller?command=show_customer_page&status=FINISHED&after=${orderHistory.finished.nextCursor}"><fmt:message key="customerPage.nextPage"/></a>
+                </c:if>
+            </div>
+        </c:if>
     </c:if>
 </div>
 
@@ -1,6 +1,7 @@
 <%@ page contentType="text/html;charset=UTF-8" pageEncoding="UTF-8" %>
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
 <%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
+<%@ taglib prefix="ctg" uri="customtags" %>
 
 <c:import url="/jsp/service/head.jsp"/>
 <head>
@@ -92,6 +93,6 @@
 <br>
 
 <c:import url="/jsp/service/footer.jsp"/>
-<script type="text/javascript" src="${root}/js/cafe.js"></script>
+<script type="text/javascript" src="<ctg:asset path="/js/cafe.js"/>"></script>
 </body>
 
@@ -22,6 +22,84 @@
                 <span class="text-danger">
                     <fmt:message key="menu.banned"/></span><br>
             </c:if>
+            <form class="form-inline justify-content-end mb-3" method="get" action="${root}/controller">
+                <input type="hidden" name="command" value="search_dishes">
+                <input class="form-control mx-1" type="search" name="query" maxlength="100"
+                       value="<c:out value="${dishSearch.query}"/>">
+                <button class="btn btn-outline-info mx-1" type="submit"><fmt:message key="menu.search"/></button>
+                <c:if test="${not empty dishSearch}">
+                    <a class="btn btn-outline-secondary mx-1" href="${root}/controller?command=show_menu"><fmt:message
+                            key="menu.wholeMenu"/></a>
+                </c:if>
+            </form>
+            <c:if test="${not empty dishSearch}">
+                <c:if test="${not empty dishSearch.completions}">
+                    <p class="text-right">
+                        <c:forEach var="completion" items="${dishSearch.completions}">
+                            <c:url var="completionUrl" value="/controller">
+                                <c:param name="command" value="search_dishes"/>
+                                <c:param name="query" value="${completion}"/>
+                            </c:url>
+                            <a class="mx-1" href="${completionUrl}"><c:out value="${completion}"/></a>
+                        </c:forEach>
+                    </p>
+                </c:if>
+                <c:choose>
+                    <c:when test="${empty dishSearch.dishes}">
+                        <p><fmt:message key="menu.nothingFound"/></p>
+                    </c:when>
+                    <c:otherwise>
+                        <table class="table table-hover table-bordered">
+                            <thead class="thead-light text-uppercase">
+                            <tr>
+                                <th scope="col"><fmt:message key="menu.name"/></th>
+                                <th scope="col"><fmt:message key="menu.description"/></th>
+                                <th scope="col"><fmt:message key="menu.price"/></th>
+                                <c:if test="${role == 'customer'}">
+                                    <th scope="col" class="text-nowrap"><fmt:message key="menu.toCart"/></th>
+                                </c:if>
+                            </tr>
+                            </thead>
+                            <tbody class="text-left">
+                            <c:forEach var="dish" items="${dishSearch.dishes}">
+                                <tr>
+                                    <th scope="row">${dish.name}
+                                        <c:choose>
+                                            <c:when test="${not empty popularToday and popularToday.contains(dish.dishId)}">
+                                                <span class="badge badge-danger"><fmt:message key="menu.popularToday"/></span>
+                                            </c:when>
+                                            <c:when test="${not empty popularThisWeek and popularThisWeek.contains(dish.dishId)}">
+                                                <span class="badge badge-warning"><fmt:message key="menu.popularThisWeek"/></span>
+                                            </c:when>
+                                        </c:choose>
+                                    </th>
+                                    <td>${dish.description}</td>
+                                    <td>${dish.price}</td>
+                                    <c:if test="${role == 'customer'}">
+                                        <td class="text-center justify-content-center">
+                                            <form method="post" action="${root}/controller">
+                                                <div class="form-row justify-content-center">
+                                                    <input type="hidden" name="command" value="add_dish_to_cart"/>
+                                                    <input type="hidden" name="dishId" value="${dish.dishId}">
+                                                    <input type="number" class="form-control mb-1" name="dishQuantity"
+                                                           min="1" max="10" required>
+                                                    <button class="btn btn-outline-success my-2 my-sm-0" type="submit"
+                                                        ${user.isActive() ? '' : 'disabled'}><fmt:message key="menu.add"/>
+                                                    </button>
+                                                </div>
+                                            </form>
+                                        </td>
+                                    </c:if>
+                                </tr>
+                            </c:forEach>
+                            </tbody>
+                        </table>
+                    </c:otherwise>
+                </c:choose>
+                <br>
+            </c:if>
+            <ctg:cache name="menu" version="${menuVersion}" variant="${role}${dateFormatStyle}"
+                       enabled="${role != 'customer'}">
             <c:if test="${not empty menu}">
                 <ul class="nav justify-content-center text-uppercase">
                     <li class="nav-item">
@@ -100,7 +178,16 @@
                             <c:if test="${role == 'admin'}">
                                 <td scope="row">${dish.dishId}</td>
                             </c:if>
-                            <th scope="row">${dish.name}</th>
+                            <th scope="row">${dish.name}
+                                <c:choose>
+                                    <c:when test="${not empty popularToday and popularToday.contains(dish.dishId)}">
+                                        <span class="badge badge-danger"><fmt:message key="menu.popularToday"/></span>
+                                    </c:when>
+                                    <c:when test="${not empty popularThisWeek and popularThisWeek.contains(dish.dishId)}">
+                                        <span class="badge badge-warning"><fmt:message key="menu.popularThisWeek"/></span>
+                                    </c:when>
+                                </c:choose>
+                            </th>
                             <td>${dish.description}</td>
                             <td>${dish.price}</td>
                             <td><ctg:formatDate date="${dish.createDate}"/></td>
@@ -153,6 +240,7 @@
                     </tbody>
                 </table>
             </c:if>
+            </ctg:cache>
         </div>
     </div>
 </div>
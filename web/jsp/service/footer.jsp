@@ -1,19 +1,20 @@
 <%@ page contentType="text/html;charset=UTF-8" pageEncoding="UTF-8" %>
+<%@ taglib prefix="ctg" uri="customtags" %>
 
 
 <div class="fixed-bottom text-center bg-light">
     <p class="m-2">Copyright 2018, Alex Shirey</p>
 </div>
 
-<script src="${root}/js/downloaded/jquery-3.2.1.slim.min.js"
+<script src="<ctg:asset path="/js/downloaded/jquery-3.2.1.slim.min.js"/>"
         integrity="sha384-KJ3o2DKtIkvYIK3UENzmM7KCkRr/rE9/Qpg6aAZGJwFDMVNA/GpGFF93hXpG5KkN"
         crossorigin="anonymous"></script>
 
-<script src="${root}/js/downloaded/popper.min.js"
+<script src="<ctg:asset path="/js/downloaded/popper.min.js"/>"
         integrity="sha384-ApNbgh9B+Y1QKtv3Rn7W3mgPxhU9K/ScQsAP7hUibX39j7fakFPskvXusvfa0b4Q"
         crossorigin="anonymous"></script>
 
-<script src="${root}/js/bootstrap.min.js"
+<script src="<ctg:asset path="/js/bootstrap.min.js"/>"
         integrity="sha384-JZR6Spejh4U02d8jOt6vLEHfe/JQGiRRSQQxSfFWpi1MquVdAyjUar5+76PVCmYl"
         crossorigin="anonymous"></script>
 
@@ -1,4 +1,5 @@
 <%@ page contentType="text/html;charset=UTF-8" pageEncoding="UTF-8" %>
+<%@ taglib prefix="ctg" uri="customtags" %>
 
 <!doctype html>
 <html lang="en">
@@ -7,6 +8,6 @@
     <meta charset="utf-8">
     <meta name="viewport" content="width=device-width, initial-scale=1, shrink-to-fit=no">
 
-    <link rel="stylesheet" href="${root}/css/bootstrap.min.css"
+    <link rel="stylesheet" href="<ctg:asset path="/css/bootstrap.min.css"/>"
           integrity="sha384-Gn5384xqQ1aoWXA+058RXPxPg6fy4IWvTNh0E263XmFcJlSAwiGgFAW/dAiS6JXm" crossorigin="anonymous">
 </head>
\ No newline at end of file
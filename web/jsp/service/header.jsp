@@ -10,7 +10,7 @@
 <%--<c:set var="root" value="${pageContext.request.contextPath}" scope="session"/>--%>
 
 <div class="fixed-top"
-     style="background-image: url(${root}/img/header.jpeg); max-width: 100%; height: auto; ">
+     style="background-image: url(<ctg:asset path="/img/header.jpeg"/>); max-width: 100%; height: auto; ">
     <div class="jumbotron bg-transparent"
          style="margin-bottom: 0; padding: 30px;">
         <div class="container text-center">
@@ -70,6 +70,8 @@
                                href="${root}/controller?command=show_dishes"><fmt:message key="nav.dishes"/></a>
                             <a class="dropdown-item"
                                href="${root}/controller?command=show_orders"><fmt:message key="nav.orders"/></a>
+                            <a class="dropdown-item"
+                               href="${root}/controller?command=show_sales"><fmt:message key="nav.sales"/></a>
                         </div>
                     </li>
                 </c:if>
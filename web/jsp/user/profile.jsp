@@ -222,7 +222,7 @@
 <br>
 
 <c:import url="/jsp/service/footer.jsp"/>
-<script type="text/javascript" src="${root}/js/cafe.js"></script>
+<script type="text/javascript" src="<ctg:asset path="/js/cafe.js"/>"></script>
 </body>
 
 